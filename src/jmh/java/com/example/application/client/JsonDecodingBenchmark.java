@@ -0,0 +1,107 @@
+package com.example.application.client;
+
+import com.example.application.entity.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ClientCodecConfigurer;
+import org.springframework.http.codec.DecoderHttpMessageReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of ship-server responses with the same JSON decoder WebClient picks, plus the
+ * binary sector grid for comparison with the JSON map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonDecodingBenchmark {
+
+  private static final ResolvableType ECHO_DATA = ResolvableType.forClass(EchoData.class);
+  private static final ResolvableType AUTO_PILOT_DATA = ResolvableType.forClass(AutoPilotData.class);
+  private static final ResolvableType SECTOR_ARRAY = ResolvableType.forClass(SectorInfo[].class);
+
+  private Decoder<Object> decoder;
+  private byte[] echoDataJson;
+  private byte[] autoPilotDataJson;
+  private byte[] sectorMapJson;
+  private byte[] sectorMapGrid;
+
+  @Setup
+  public void setUp() throws Exception {
+    decoder = jsonDecoder();
+    ObjectMapper mapper = new ObjectMapper();
+    SplittableRandom random = new SplittableRandom(42);
+
+    List<Echo> echos = new ArrayList<>();
+    for (Directions direction : Directions.values()) {
+      echos.add(new Echo(new Sector(new Vec2D(direction.getDx(), direction.getDy())), random.nextInt(300), Ground.Water));
+    }
+    echoDataJson = mapper.writeValueAsBytes(new EchoData(echos, List.of(new NotNavigable(new Vec2D(1, 0)))));
+
+    List<SectorData> sectorData = new ArrayList<>();
+    for (int i = 0; i < 9; i++) {
+      sectorData.add(new SectorData("Ship#1", Ground.Water, 10 + i / 3, 10 + i % 3, 0, random.nextInt(400), 1.5f));
+    }
+    autoPilotDataJson = mapper.writeValueAsBytes(new AutoPilotData("Ship#1", new ShipPosition(11, 11), sectorData));
+
+    List<SectorInfo> sectors = new ArrayList<>(100 * 100);
+    for (int x = 0; x < 100; x++) {
+      for (int y = 0; y < 100; y++) {
+        SectorInfo sector = new SectorInfo();
+        sector.setShipId("Ship#1");
+        sector.setGround(random.nextInt(10) < 7 ? Ground.Water : Ground.Land);
+        sector.setDepth(random.nextInt(400));
+        sector.setSectorX(x);
+        sector.setSectorY(y);
+        sectors.add(sector);
+      }
+    }
+    sectorMapJson = mapper.writeValueAsBytes(sectors);
+    sectorMapGrid = SectorGridCodec.encode(sectors, 100, 100, 1, true);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Object echoData() {
+    return decode(echoDataJson, ECHO_DATA);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Object autoPilotData() {
+    return decode(autoPilotDataJson, AUTO_PILOT_DATA);
+  }
+
+  @Benchmark
+  public Object sectorMapJson() {
+    return decode(sectorMapJson, SECTOR_ARRAY);
+  }
+
+  @Benchmark
+  public SectorInfo[] sectorMapGrid() {
+    return SectorGridCodec.decode(sectorMapGrid);
+  }
+
+  private Object decode(byte[] json, ResolvableType type) {
+    return decoder.decode(DefaultDataBufferFactory.sharedInstance.wrap(json), type, MediaType.APPLICATION_JSON, Map.of());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Decoder<Object> jsonDecoder() {
+    return ClientCodecConfigurer.create().getReaders().stream()
+        .filter(reader -> reader instanceof DecoderHttpMessageReader<?>)
+        .map(reader -> ((DecoderHttpMessageReader<Object>) reader).getDecoder())
+        .filter(decoder -> decoder.canDecode(ECHO_DATA, MediaType.APPLICATION_JSON))
+        .findFirst()
+        .orElseThrow(() -> new IllegalStateException("No JSON decoder on the classpath"));
+  }
+}
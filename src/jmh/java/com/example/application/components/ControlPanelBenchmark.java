@@ -0,0 +1,39 @@
+package com.example.application.components;
+
+import com.example.application.diagnostics.UiActivityMonitor;
+import com.example.application.entity.ShipData;
+import com.example.application.i18n.TranslationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Rebuilding the ship list after every ship poll. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControlPanelBenchmark {
+
+  @Param({"5", "50", "500"})
+  public int shipCount;
+
+  private ControlPanel controlPanel;
+  private List<ShipData> ships;
+
+  @Setup
+  public void setUp() {
+    Sea sea = new Sea(null, null, new UiActivityMonitor(), "div");
+    controlPanel = new ControlPanel(sea, null, null, new Navigation(), new TranslationService(), new UiActivityMonitor());
+    ships = new ArrayList<>(shipCount);
+    for (int i = 0; i < shipCount; i++) {
+      ships.add(new ShipData("Ship" + i + "#" + i, "Ship" + i, i % 100, (i * 7) % 100, 1, 0));
+    }
+  }
+
+  @Benchmark
+  public ControlPanel rebuildShipList() {
+    controlPanel.rebuildShipList(ships);
+    return controlPanel;
+  }
+}
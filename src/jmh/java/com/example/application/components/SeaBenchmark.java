@@ -0,0 +1,82 @@
+package com.example.application.components;
+
+import com.example.application.diagnostics.UiActivityMonitor;
+import com.example.application.entity.Ground;
+import com.example.application.entity.SectorInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Painting the sector map into the 100x100 cell grid: a full map, a single cell and the
+ * palette lookup alone, for all renderers (client and canvas without a browser, so only
+ * the server-side state is measured). Re-applying the same map measures the dirty-cell check;
+ * the single-cell benchmark alternates two sectors so every call repaints.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SeaBenchmark {
+
+  @Param({"div", "client", "canvas"})
+  public String renderer;
+
+  private Sea sea;
+  private List<SectorInfo> fullMap;
+  private SectorInfo deepWater;
+  private SectorInfo land;
+  private boolean toggle;
+
+  @Setup
+  public void setUp() {
+    sea = new Sea(null, null, new UiActivityMonitor(), renderer);
+    sea.createGrid();
+    fullMap = randomMap(42);
+    deepWater = sector(Ground.Water, 1500, 10, 10);
+    land = sector(Ground.Land, 0, 10, 10);
+  }
+
+  @Benchmark
+  public Sea applyMapSectors() {
+    sea.applyMapSectors(fullMap);
+    return sea;
+  }
+
+  @Benchmark
+  public boolean applySectorToCell() {
+    toggle = !toggle;
+    return sea.applySectorToCell(10, 10, toggle ? deepWater : land);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String paletteColor() {
+    return SeaPalette.colorFor(deepWater.getGround(), deepWater.getDepth());
+  }
+
+  static List<SectorInfo> randomMap(long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    Ground[] grounds = Ground.values();
+    List<SectorInfo> sectors = new ArrayList<>(100 * 100);
+    for (int x = 0; x < 100; x++) {
+      for (int y = 0; y < 100; y++) {
+        // Überwiegend Wasser, etwa die Hälfte davon tief
+        Ground ground = random.nextInt(10) < 7 ? Ground.Water : grounds[random.nextInt(grounds.length)];
+        sectors.add(sector(ground, random.nextInt(400), x, y));
+      }
+    }
+    return sectors;
+  }
+
+  private static SectorInfo sector(Ground ground, int depth, int x, int y) {
+    SectorInfo sector = new SectorInfo();
+    sector.setGround(ground);
+    sector.setDepth(depth);
+    sector.setSectorX(x);
+    sector.setSectorY(y);
+    return sector;
+  }
+}
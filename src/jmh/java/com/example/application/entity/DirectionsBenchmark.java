@@ -0,0 +1,29 @@
+package com.example.application.entity;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/** Direction lookups done for every ship update and navigation click. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DirectionsBenchmark {
+
+  private final String[] shortNames = {"N", "ne", "E", "SE", "s", "SW", "W", "nw"};
+
+  @Benchmark
+  public void fromDelta(Blackhole blackhole) {
+    for (Directions direction : Directions.values()) {
+      blackhole.consume(Directions.fromDelta(direction.getDx(), direction.getDy()));
+    }
+  }
+
+  @Benchmark
+  public void fromShortName(Blackhole blackhole) {
+    for (String shortName : shortNames) {
+      blackhole.consume(Directions.fromShortName(shortName));
+    }
+  }
+}
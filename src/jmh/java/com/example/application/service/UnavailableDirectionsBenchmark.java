@@ -0,0 +1,42 @@
+package com.example.application.service;
+
+import com.example.application.entity.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Radar evaluation: blocked directions from the echoes around a ship at the map edge. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UnavailableDirectionsBenchmark {
+
+  private ShipCommandService service;
+  private ShipData ship;
+  private EchoData echoData;
+
+  @Setup
+  public void setUp() {
+    service = new ShipCommandService(null, null, null, null);
+    // Am Rand, damit auch die Bereichsprüfung Richtungen hinzufügt
+    ship = new ShipData("Ship#1", "Ship", 0, 50, 1, 1);
+    List<Echo> echos = new ArrayList<>();
+    List<NotNavigable> notNavigable = new ArrayList<>();
+    for (Directions direction : Directions.values()) {
+      Vec2D offset = new Vec2D(direction.getDx(), direction.getDy());
+      boolean land = direction.ordinal() % 3 == 0;
+      echos.add(new Echo(new Sector(offset), land ? 120 : 0, land ? Ground.Land : Ground.Water));
+      if (land) {
+        notNavigable.add(new NotNavigable(offset));
+      }
+    }
+    echoData = new EchoData(echos, notNavigable);
+  }
+
+  @Benchmark
+  public List<Vec2D> getUnavailableDirections() {
+    return service.getUnavailableDirections(ship, echoData);
+  }
+}
@@ -0,0 +1,376 @@
+package com.example.application.client;
+
+import com.example.application.config.ShipClientProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission control and priority scheduling for all outbound calls, shared by every
+ * session. Each server has a token bucket, each session (Vaadin session id from the
+ * Reactor context, see {@link #withSession}) a smaller one. Calls that find no token wait
+ * in per-session lanes, one per {@link RequestPriority}: higher classes are always served
+ * first, sessions within a class round robin. While interactive calls to a server are
+ * slower than {@code interactive-latency-target}, background calls are additionally
+ * delayed. Waiting is bounded per session and in time; both limits fail fast with
+ * {@link UpstreamUnavailableException}. A call whose priority is raised while it waits (see
+ * {@link #PRIORITY_UPGRADES_KEY}) queues again in the higher class.
+ */
+@Component
+public class AdmissionController {
+
+  public static final String SESSION_KEY = "ocean.session";
+  public static final String PRIORITY_KEY = "ocean.priority";
+  // Flux<RequestPriority> mit späteren Anhebungen, z. B. wenn ein Klick einem geteilten Abruf beitritt
+  public static final String PRIORITY_UPGRADES_KEY = "ocean.priority.upgrades";
+  // Aufrufe ohne Session (gemeinsame Poller) teilen sich eine Spur.
+  static final String BACKGROUND_SESSION = "background";
+
+  private static final long LANE_IDLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+  // Ältere Messungen interaktiver Latenz gelten nicht mehr als Überlast.
+  private static final long LATENCY_STALE_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  private final ShipClientProperties.Admission admission;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, ServerQueue> servers = new ConcurrentHashMap<>();
+
+  public AdmissionController(ShipClientProperties properties, MeterRegistry meterRegistry) {
+    this.admission = properties.getAdmission();
+    this.meterRegistry = meterRegistry;
+  }
+
+  public static Context withSession(String sessionId) {
+    return Context.of(SESSION_KEY, sessionId);
+  }
+
+  public static Context withPriority(RequestPriority priority) {
+    return Context.of(PRIORITY_KEY, priority);
+  }
+
+  public <T> Mono<T> admit(String server, Supplier<Mono<T>> call) {
+    if (!admission.isEnabled()) {
+      return Mono.defer(call);
+    }
+    return Mono.deferContextual(context -> {
+      String session = context.getOrDefault(SESSION_KEY, BACKGROUND_SESSION);
+      RequestPriority priority = context.getOrDefault(PRIORITY_KEY, RequestPriority.BACKGROUND);
+      Flux<RequestPriority> upgrades = context.getOrDefault(PRIORITY_UPGRADES_KEY, null);
+      ServerQueue queue = servers.computeIfAbsent(server, ServerQueue::new);
+      return acquire(queue, session, priority, upgrades).flatMap(admitted -> {
+        if (admitted != RequestPriority.INTERACTIVE) {
+          return Mono.defer(call);
+        }
+        long start = System.nanoTime();
+        // Fehler und Timeouts zählen mit: gerade sie zeigen Überlast.
+        return call.get().doFinally(signal -> {
+          if (signal != SignalType.CANCEL) {
+            queue.recordInteractive(System.nanoTime() - start);
+          }
+        });
+      });
+    });
+  }
+
+  // Liefert die Priorität, mit der das Token erteilt wurde.
+  private Mono<RequestPriority> acquire(ServerQueue queue, String session, RequestPriority priority,
+                                        Flux<RequestPriority> upgrades) {
+    Mono<Void> admitted = Mono.defer(() -> queue.acquire(session, priority));
+    if (priority == RequestPriority.BACKGROUND) {
+      Duration backoff = queue.backgroundBackoff();
+      if (!backoff.isZero()) {
+        queue.backoffs.increment();
+        // Erst nach der Wartezeit um ein Token bewerben, damit es solange interaktiven Aufrufen bleibt.
+        admitted = Mono.delay(backoff).then(admitted);
+      }
+    }
+    if (upgrades == null) {
+      return admitted.thenReturn(priority);
+    }
+    // Angehoben, bevor das Token kam: Warteplatz aufgeben und in der höheren Klasse neu anstellen.
+    Mono<Optional<RequestPriority>> raised = upgrades
+        .filter(upgrade -> upgrade.compareTo(priority) < 0)
+        .next()
+        .map(Optional::of)
+        .switchIfEmpty(Mono.never());
+    return Mono.firstWithSignal(admitted.then(Mono.just(Optional.<RequestPriority>empty())), raised)
+        .flatMap(upgrade -> upgrade.isPresent()
+            ? acquire(queue, session, upgrade.get(), upgrades)
+            : Mono.just(priority));
+  }
+
+  /** Drops the queue of a server that is no longer used; calls still waiting in it are served as usual. */
+  public void forget(String server) {
+    servers.remove(server);
+  }
+
+  private final class ServerQueue {
+    private final String server;
+    private final TokenBucket bucket;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+    // Spuren mit wartenden Aufrufen je Priorität, in Round-Robin-Reihenfolge
+    private final Map<RequestPriority, ConcurrentLinkedDeque<Lane>> ready = new EnumMap<>(RequestPriority.class);
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicLong acquireCount = new AtomicLong();
+    // Gleitender Mittelwert der interaktiven Latenz und Zeitpunkt der letzten Messung
+    private final AtomicLong interactiveLatency = new AtomicLong();
+    private volatile long interactiveSampledAt;
+    private final Counter backoffs;
+
+    ServerQueue(String server) {
+      this.server = server;
+      ShipClientProperties.Limit limit = admission.serverLimit(server);
+      this.bucket = new TokenBucket(limit.getRatePerSecond(), limit.getBurst());
+      for (RequestPriority priority : RequestPriority.values()) {
+        ready.put(priority, new ConcurrentLinkedDeque<>());
+      }
+      Gauge.builder("ship.client.admission.queued", queued, AtomicInteger::get)
+          .tag("server", server)
+          .register(meterRegistry);
+      Gauge.builder("ship.client.admission.interactive.latency", interactiveLatency, latency -> latency.get() / 1e6)
+          .tag("server", server)
+          .baseUnit("milliseconds")
+          .register(meterRegistry);
+      this.backoffs = Counter.builder("ship.client.admission.backoffs").tag("server", server).register(meterRegistry);
+    }
+
+    Mono<Void> acquire(String session, RequestPriority priority) {
+      if ((acquireCount.incrementAndGet() & 1023) == 0) {
+        evictIdleLanes();
+      }
+      Lane lane = lanes.computeIfAbsent(session, id -> new Lane());
+      lane.lastUsed = System.nanoTime();
+      // Schneller Pfad: niemand wartet und beide Buckets haben Tokens.
+      if (queued.get() == 0) {
+        if (lane.bucket.tryAcquire() == 0) {
+          if (bucket.tryAcquire() == 0) {
+            admitted("immediate", priority).increment();
+            return Mono.empty();
+          }
+          lane.bucket.refund();
+        }
+      }
+      if (lane.size() >= admission.getMaxQueuedPerSession()) {
+        rejected("queue-full", priority).increment();
+        return Mono.error(new UpstreamUnavailableException(server + " admission queue is full for this session"));
+      }
+      Waiter waiter = new Waiter();
+      lane.waiters.get(priority).offer(waiter);
+      queued.incrementAndGet();
+      schedule(lane, priority);
+      drain();
+      return waiter.sink.asMono()
+          .timeout(admission.getMaxWait())
+          .doOnSuccess(ignored -> {
+            admitted("queued", priority).increment();
+            Timer.builder("ship.client.admission.wait")
+                .tag("server", server)
+                .tag("priority", priority.name())
+                .register(meterRegistry)
+                .record(System.nanoTime() - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+          })
+          .onErrorMap(TimeoutException.class, ex -> {
+            rejected("timeout", priority).increment();
+            return new UpstreamUnavailableException(server + " admission wait exceeded " + admission.getMaxWait());
+          })
+          .doFinally(signal -> {
+            if (waiter.cancel()) {
+              // Nicht mehr wartend: aus der Zählung nehmen, die Spur räumt den Eintrag beim nächsten Drain.
+              queued.decrementAndGet();
+            }
+          });
+    }
+
+    void recordInteractive(long nanos) {
+      interactiveLatency.updateAndGet(current -> current == 0 ? nanos : current + (nanos - current) / 8);
+      interactiveSampledAt = System.nanoTime();
+    }
+
+    // Zusätzliche Wartezeit für Hintergrundaufrufe, solange interaktive Aufrufe zu langsam sind.
+    Duration backgroundBackoff() {
+      long latency = interactiveLatency.get();
+      if (latency <= admission.getInteractiveLatencyTarget().toNanos()
+          || System.nanoTime() - interactiveSampledAt > LATENCY_STALE_NANOS) {
+        return Duration.ZERO;
+      }
+      return Duration.ofNanos(Math.min(latency, admission.getBackgroundMaxBackoff().toNanos()));
+    }
+
+    private void schedule(Lane lane, RequestPriority priority) {
+      if (lane.scheduled.get(priority).compareAndSet(false, true)) {
+        ready.get(priority).offer(lane);
+      }
+    }
+
+    // Serialisierter Drain ohne Lock: nur ein Thread verteilt Tokens, weitere Aufrufe setzen nur wip hoch.
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        long retryNanos = Long.MAX_VALUE;
+        Map<RequestPriority, List<Lane>> throttled = new EnumMap<>(RequestPriority.class);
+        serve:
+        for (RequestPriority priority : RequestPriority.values()) {
+          ConcurrentLinkedDeque<Lane> lanesReady = ready.get(priority);
+          Lane lane;
+          while ((lane = lanesReady.poll()) != null) {
+            Waiter waiter = lane.firstWaiting(priority);
+            if (waiter == null) {
+              lane.scheduled.get(priority).set(false);
+              if (lane.firstWaiting(priority) != null) {
+                schedule(lane, priority);
+              }
+              continue;
+            }
+            long sessionWait = lane.bucket.tryAcquire();
+            if (sessionWait > 0) {
+              // Session-Quote erschöpft: andere Sessions sind dran.
+              retryNanos = Math.min(retryNanos, sessionWait);
+              throttled.computeIfAbsent(priority, p -> new ArrayList<>()).add(lane);
+              continue;
+            }
+            long serverWait = bucket.tryAcquire();
+            if (serverWait > 0) {
+              // Server-Bucket leer: niedrigere Prioritäten kommen erst recht nicht dran.
+              lane.bucket.refund();
+              retryNanos = Math.min(retryNanos, serverWait);
+              lanesReady.offerFirst(lane);
+              break serve;
+            }
+            lane.waiters.get(priority).poll();
+            if (waiter.grant()) {
+              queued.decrementAndGet();
+            } else {
+              bucket.refund();
+              lane.bucket.refund();
+            }
+            lanesReady.offer(lane);
+          }
+        }
+        throttled.forEach((priority, waiting) -> waiting.forEach(ready.get(priority)::offer));
+        if (retryNanos != Long.MAX_VALUE) {
+          scheduleDrain(retryNanos);
+        }
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void scheduleDrain(long delayNanos) {
+      if (drainScheduled.compareAndSet(false, true)) {
+        Schedulers.parallel().schedule(() -> {
+          drainScheduled.set(false);
+          drain();
+        }, delayNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+
+    private void evictIdleLanes() {
+      long now = System.nanoTime();
+      lanes.entrySet().removeIf(entry -> entry.getValue().size() == 0
+          && now - entry.getValue().lastUsed > LANE_IDLE_NANOS);
+    }
+
+    private Counter admitted(String path, RequestPriority priority) {
+      return Counter.builder("ship.client.admission.admitted")
+          .tag("server", server)
+          .tag("path", path)
+          .tag("priority", priority.name())
+          .register(meterRegistry);
+    }
+
+    private Counter rejected(String reason, RequestPriority priority) {
+      return Counter.builder("ship.client.admission.rejected")
+          .tag("server", server)
+          .tag("reason", reason)
+          .tag("priority", priority.name())
+          .register(meterRegistry);
+    }
+  }
+
+  // Alle wartenden Aufrufe einer Session, getrennt nach Priorität; der Token-Bucket gilt für alle gemeinsam.
+  private final class Lane {
+    private final TokenBucket bucket;
+    private final Map<RequestPriority, ConcurrentLinkedQueue<Waiter>> waiters = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, AtomicBoolean> scheduled = new EnumMap<>(RequestPriority.class);
+    private volatile long lastUsed;
+
+    Lane() {
+      ShipClientProperties.Limit limit = admission.getSession();
+      this.bucket = new TokenBucket(limit.getRatePerSecond(), limit.getBurst());
+      for (RequestPriority priority : RequestPriority.values()) {
+        waiters.put(priority, new ConcurrentLinkedQueue<>());
+        scheduled.put(priority, new AtomicBoolean());
+      }
+    }
+
+    // Erster noch wartender Aufruf; abgebrochene werden dabei entfernt.
+    Waiter firstWaiting(RequestPriority priority) {
+      ConcurrentLinkedQueue<Waiter> queue = waiters.get(priority);
+      Waiter waiter;
+      while ((waiter = queue.peek()) != null && !waiter.isWaiting()) {
+        queue.poll();
+      }
+      return waiter;
+    }
+
+    int size() {
+      int size = 0;
+      for (ConcurrentLinkedQueue<Waiter> queue : waiters.values()) {
+        size += queue.size();
+      }
+      return size;
+    }
+  }
+  private static final class Waiter {
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+
+    private final Sinks.Empty<Void> sink = Sinks.empty();
+    private final AtomicInteger state = new AtomicInteger(WAITING);
+    private final long enqueuedAt = System.nanoTime();
+
+    boolean isWaiting() {
+      return state.get() == WAITING;
+    }
+
+    boolean grant() {
+      if (state.compareAndSet(WAITING, GRANTED)) {
+        sink.tryEmitEmpty();
+        return true;
+      }
+      return false;
+    }
+
+    boolean cancel() {
+      return state.compareAndSet(WAITING, CANCELLED);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.application.client;
+
+import com.example.application.config.ShipClientProperties;
+
+/**
+ * Count-based circuit breaker for one server. Opens when the failure rate over the last
+ * {@code slidingWindowSize} calls reaches the threshold, rejects calls while open, and lets a
+ * few trial calls through after {@code openDuration} to decide whether to close again.
+ */
+final class CircuitBreaker {
+
+  enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final int failureRateThreshold;
+  private final int minimumCalls;
+  private final long openNanos;
+  private final int halfOpenCalls;
+
+  private final boolean[] window;
+  private int windowIndex;
+  private int windowCount;
+  private int windowFailures;
+
+  private State state = State.CLOSED;
+  private long openedAt;
+  private int halfOpenInFlight;
+  private int halfOpenSuccesses;
+
+  CircuitBreaker(ShipClientProperties.Resilience resilience) {
+    this.failureRateThreshold = resilience.getFailureRateThreshold();
+    this.minimumCalls = resilience.getMinimumCalls();
+    this.openNanos = resilience.getOpenDuration().toNanos();
+    this.halfOpenCalls = resilience.getHalfOpenCalls();
+    this.window = new boolean[resilience.getSlidingWindowSize()];
+  }
+
+  synchronized State getState() {
+    return state;
+  }
+
+  synchronized boolean tryAcquirePermission() {
+    if (state == State.OPEN) {
+      if (System.nanoTime() - openedAt < openNanos) {
+        return false;
+      }
+      state = State.HALF_OPEN;
+      halfOpenInFlight = 0;
+      halfOpenSuccesses = 0;
+    }
+    if (state == State.HALF_OPEN) {
+      if (halfOpenInFlight >= halfOpenCalls) {
+        return false;
+      }
+      halfOpenInFlight++;
+    }
+    return true;
+  }
+
+  synchronized void onSuccess() {
+    if (state == State.HALF_OPEN) {
+      releaseTrial();
+      if (++halfOpenSuccesses >= halfOpenCalls) {
+        close();
+      }
+      return;
+    }
+    record(false);
+  }
+
+  synchronized void onFailure() {
+    if (state == State.HALF_OPEN) {
+      open();
+      return;
+    }
+    record(true);
+    if (windowCount >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCount) {
+      open();
+    }
+  }
+
+  // Abgebrochene oder nicht bewertbare Aufrufe geben nur ihren Probe-Slot frei.
+  synchronized void onIgnored() {
+    if (state == State.HALF_OPEN) {
+      releaseTrial();
+    }
+  }
+
+  private void releaseTrial() {
+    if (halfOpenInFlight > 0) {
+      halfOpenInFlight--;
+    }
+  }
+
+  private void record(boolean failure) {
+    if (windowCount == window.length) {
+      if (window[windowIndex]) {
+        windowFailures--;
+      }
+    } else {
+      windowCount++;
+    }
+    window[windowIndex] = failure;
+    if (failure) {
+      windowFailures++;
+    }
+    windowIndex = (windowIndex + 1) % window.length;
+  }
+
+  private void open() {
+    state = State.OPEN;
+    openedAt = System.nanoTime();
+  }
+
+  private void close() {
+    state = State.CLOSED;
+    windowIndex = 0;
+    windowCount = 0;
+    windowFailures = 0;
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.application.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Immutable consistent-hash ring with virtual nodes. Adding or removing a node only moves
+ * the keys between it and its neighbours; everything else keeps its owner.
+ */
+final class ConsistentHashRing<T> {
+
+  private final TreeMap<Long, T> ring = new TreeMap<>();
+
+  ConsistentHashRing(List<T> nodes, Function<T, String> nodeName, int virtualNodes) {
+    for (T node : nodes) {
+      String name = nodeName.apply(node);
+      for (int i = 0; i < virtualNodes; i++) {
+        ring.put(hash(name + "#" + i), node);
+      }
+    }
+  }
+
+  T nodeFor(String key) {
+    if (ring.isEmpty()) {
+      return null;
+    }
+    Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key));
+    return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+  }
+
+  // FNV-1a mit Murmur3-Finalizer: schnell und gleichmäßig genug für die Ringverteilung.
+  static long hash(String key) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
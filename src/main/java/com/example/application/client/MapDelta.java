@@ -0,0 +1,29 @@
+package com.example.application.client;
+
+import com.example.application.entity.SectorInfo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Result of a conditional map poll: the sectors that changed since the caller's
+ * snapshot, and the new snapshot to pass into the next poll.
+ */
+@Getter
+@AllArgsConstructor
+public final class MapDelta {
+
+  private final MapSnapshot snapshot;
+  private final List<SectorInfo> changedSectors;
+  // true when the server answered 304 Not Modified.
+  private final boolean notModified;
+
+  public static MapDelta unchanged(MapSnapshot snapshot) {
+    return new MapDelta(snapshot, List.of(), true);
+  }
+
+  public boolean hasChanges() {
+    return !changedSectors.isEmpty();
+  }
+}
@@ -0,0 +1,74 @@
+package com.example.application.client;
+
+import com.example.application.entity.SectorInfo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable view of the sector map as last seen by one caller, together with the
+ * cursor (ETag and/or map version) needed to ask the base server only for changes.
+ */
+@Getter
+@AllArgsConstructor
+public final class MapSnapshot {
+
+  public static final int SIZE = 100;
+  public static final MapSnapshot EMPTY = new MapSnapshot(null, null, new SectorInfo[SIZE * SIZE]);
+
+  private final String etag;
+  private final Long version;
+  // Indexed by x * SIZE + y; never modified after construction.
+  private final SectorInfo[] grid;
+
+  public SectorInfo get(int x, int y) {
+    if (x < 0 || x >= SIZE || y < 0 || y >= SIZE) return null;
+    return grid[x * SIZE + y];
+  }
+
+  public List<SectorInfo> getSectors() {
+    List<SectorInfo> sectors = new ArrayList<>(grid.length);
+    for (SectorInfo sector : grid) {
+      if (sector != null) {
+        sectors.add(sector);
+      }
+    }
+    return sectors;
+  }
+
+  /**
+   * Sectors whose ground or depth differs from {@code older}; lets every reader of a
+   * shared snapshot derive its own change set without another upstream request.
+   */
+  public List<SectorInfo> changesSince(MapSnapshot older) {
+    if (older == this) {
+      return List.of();
+    }
+    SectorInfo[] before = older.grid;
+    List<SectorInfo> changed = new ArrayList<>();
+    for (int i = 0; i < grid.length; i++) {
+      SectorInfo sector = grid[i];
+      if (sector != null && sector != before[i] && isVisiblyDifferent(before[i], sector)) {
+        changed.add(sector);
+      }
+    }
+    return changed;
+  }
+
+  static boolean isVisiblyDifferent(SectorInfo before, SectorInfo after) {
+    return before == null
+        || before.getGround() != after.getGround()
+        || before.getDepth() != after.getDepth();
+  }
+
+  static boolean inBounds(SectorInfo sector) {
+    return sector.getSectorX() >= 0 && sector.getSectorX() < SIZE
+        && sector.getSectorY() >= 0 && sector.getSectorY() < SIZE;
+  }
+
+  static int indexOf(SectorInfo sector) {
+    return sector.getSectorX() * SIZE + sector.getSectorY();
+  }
+}
@@ -0,0 +1,121 @@
+package com.example.application.client;
+
+import com.example.application.config.ShipClientProperties;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Hedging for idempotent reads: if the first attempt has not answered after the endpoint's
+ * configured latency percentile, a second one is sent, the first answer wins and the other
+ * attempt is cancelled. The call only fails if both attempts fail. No hedge is sent once the
+ * first attempt has failed or while the circuit breaker is not closed, so a failing server
+ * gets no extra load. Hedges draw from a token budget, so they stay a small fraction of the
+ * traffic even when the server is slow across the board.
+ */
+final class RequestHedger {
+
+  // Perzentile werden höchstens so oft aus dem Timer gelesen.
+  private static final long DELAY_REFRESH_NANOS = Duration.ofSeconds(1).toNanos();
+
+  private final String serverName;
+  private final ShipClientProperties.Hedging hedging;
+  private final ShipServerMetrics metrics;
+  private final CircuitBreaker circuitBreaker;
+  private final RetryBudget budget;
+  private final Map<String, CachedDelay> delays = new ConcurrentHashMap<>();
+
+  RequestHedger(String serverName, ShipClientProperties.Hedging hedging, ShipServerMetrics metrics,
+                CircuitBreaker circuitBreaker) {
+    this.serverName = serverName;
+    this.hedging = hedging;
+    this.metrics = metrics;
+    this.circuitBreaker = circuitBreaker;
+    this.budget = new RetryBudget(hedging.getMaxRatio(), hedging.getMaxTokens());
+  }
+
+  boolean isHedged(String endpoint) {
+    return hedging.isEnabled() && hedging.isHedged(endpoint);
+  }
+
+  /** Earns hedge budget; called once per logical request, not per retry. */
+  void deposit() {
+    budget.deposit();
+  }
+
+  <T> Mono<T> hedge(String endpoint, Supplier<Mono<T>> attempt) {
+    return Mono.defer(() -> {
+      Sinks.Empty<Void> firstFailed = Sinks.empty();
+      Mono<Optional<T>> second = Mono.delay(delayFor(endpoint))
+          // Ist der erste Versuch schon gescheitert, wird nicht mehr gehedgt.
+          .takeUntilOther(firstFailed.asMono())
+          .flatMap(tick -> {
+            if (circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+              metrics.recordHedge(serverName, endpoint, "skipped");
+              return Mono.empty();
+            }
+            if (!budget.tryWithdraw()) {
+              metrics.recordHedge(serverName, endpoint, "suppressed");
+              return Mono.empty();
+            }
+            metrics.recordHedge(serverName, endpoint, "sent");
+            // Signalisiert der Hedge einen Wert, war er schneller; sonst wurde er abgebrochen.
+            return attempt.get()
+                .doOnSuccess(value -> metrics.recordHedge(serverName, endpoint, "won"))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+          });
+      Mono<Optional<T>> first = attempt.get()
+          .map(Optional::of)
+          .defaultIfEmpty(Optional.empty())
+          .doOnError(ex -> firstFailed.tryEmitEmpty());
+      // Der erste Wert gewinnt, der andere Versuch wird abgebrochen; ein Fehler nur, wenn beide scheitern.
+      return Mono.firstWithValue(first, second)
+          .onErrorMap(RequestHedger::firstFailure)
+          .flatMap(Mono::justOrEmpty);
+    });
+  }
+
+  // firstWithValue bündelt die Fehler beider Versuche; weitergereicht wird der erste echte,
+  // damit Retry und Circuit Breaker ihn wie einen normalen Fehler einordnen.
+  private static Throwable firstFailure(Throwable ex) {
+    for (Throwable failure : Exceptions.unwrapMultiple(ex)) {
+      if (failure != null && !(failure instanceof NoSuchElementException)) {
+        return failure;
+      }
+    }
+    return ex;
+  }
+
+  private Duration delayFor(String endpoint) {
+    long now = System.nanoTime();
+    CachedDelay cached = delays.get(endpoint);
+    if (cached != null && now - cached.readAt < DELAY_REFRESH_NANOS) {
+      return cached.delay;
+    }
+    Duration percentile = metrics.latencyPercentile(serverName, endpoint, hedging.getPercentile());
+    Duration delay = percentile != null ? percentile : hedging.getDefaultDelay();
+    if (delay.compareTo(hedging.getMinDelay()) < 0) {
+      delay = hedging.getMinDelay();
+    }
+    delays.put(endpoint, new CachedDelay(delay, now));
+    return delay;
+  }
+
+  private static final class CachedDelay {
+    private final Duration delay;
+    private final long readAt;
+
+    CachedDelay(Duration delay, long readAt) {
+      this.delay = delay;
+      this.readAt = readAt;
+    }
+  }
+}
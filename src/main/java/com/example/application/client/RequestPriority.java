@@ -0,0 +1,14 @@
+package com.example.application.client;
+
+/**
+ * Scheduling class of an outbound call, in descending priority. Carried in the Reactor
+ * context (see {@link AdmissionController#withPriority}); calls without one count as
+ * {@link #BACKGROUND}.
+ */
+public enum RequestPriority {
+  // Button-Klicks: navigate, radar, scan, launch, exit
+  INTERACTIVE,
+  AUTOPILOT,
+  // Live-Sync, Karten-Cache und andere Poller
+  BACKGROUND
+}
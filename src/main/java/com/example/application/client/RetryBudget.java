@@ -0,0 +1,39 @@
+package com.example.application.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries at a fraction of regular traffic: every original call deposits {@code ratio}
+ * of a token, every retry withdraws a whole one. When the server is failing broadly the
+ * budget runs dry and retries stop adding load.
+ */
+final class RetryBudget {
+
+  private static final long SCALE = 1000;
+
+  private final long depositPerCall;
+  private final long maxBalance;
+  private final AtomicLong balance;
+
+  RetryBudget(double ratio, int maxTokens) {
+    this.depositPerCall = Math.round(ratio * SCALE);
+    this.maxBalance = maxTokens * SCALE;
+    this.balance = new AtomicLong(maxBalance);
+  }
+
+  void deposit() {
+    balance.accumulateAndGet(depositPerCall, (current, add) -> Math.min(maxBalance, current + add));
+  }
+
+  boolean tryWithdraw() {
+    while (true) {
+      long current = balance.get();
+      if (current < SCALE) {
+        return false;
+      }
+      if (balance.compareAndSet(current, current - SCALE)) {
+        return true;
+      }
+    }
+  }
+}
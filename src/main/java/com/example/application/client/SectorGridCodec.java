@@ -0,0 +1,144 @@
+package com.example.application.client;
+
+import com.example.application.entity.Ground;
+import com.example.application.entity.SectorInfo;
+import org.springframework.util.MimeType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary form of the sector grid.
+ * <p>
+ * Header (10 bytes, big-endian): magic {@code "OG"}, format version, flags (bit 0: cells are
+ * deflated), width, height, depth step in meters. Then one 16-bit word per cell in row-major
+ * order ({@code y * width + x}): ground in the upper 4 bits ({@code ordinal + 1}, 0 = no data)
+ * and the depth divided by the depth step in the lower 12 bits. The full 100x100 map is 20 KB
+ * before compression. Sector ship ids are not part of the format.
+ */
+public final class SectorGridCodec {
+
+  public static final MimeType MIME_TYPE = new MimeType("application", "vnd.ocean.sector-grid");
+
+  private static final byte MAGIC_0 = 'O';
+  private static final byte MAGIC_1 = 'G';
+  private static final byte VERSION = 1;
+  private static final int FLAG_DEFLATE = 1;
+  private static final int HEADER_SIZE = 10;
+  private static final int MAX_DEPTH_UNITS = 0x0FFF;
+
+  private SectorGridCodec() {
+  }
+
+  public static byte[] encode(List<SectorInfo> sectors, int width, int height, int depthStep, boolean deflate) {
+    byte[] cells = new byte[width * height * 2];
+    for (SectorInfo sector : sectors) {
+      int x = sector.getSectorX();
+      int y = sector.getSectorY();
+      if (x < 0 || x >= width || y < 0 || y >= height) {
+        continue;
+      }
+      Ground ground = sector.getGround() != null ? sector.getGround() : Ground.None;
+      int depthUnits = Math.min(MAX_DEPTH_UNITS, Math.max(0, sector.getDepth()) / depthStep);
+      int word = ((ground.ordinal() + 1) << 12) | depthUnits;
+      int offset = (y * width + x) * 2;
+      cells[offset] = (byte) (word >>> 8);
+      cells[offset + 1] = (byte) word;
+    }
+    byte[] body = deflate ? deflate(cells) : cells;
+    ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + body.length);
+    out.put(MAGIC_0).put(MAGIC_1).put(VERSION).put((byte) (deflate ? FLAG_DEFLATE : 0))
+        .putShort((short) width).putShort((short) height).putShort((short) depthStep)
+        .put(body);
+    return out.array();
+  }
+
+  public static SectorInfo[] decode(byte[] bytes) {
+    ByteBuffer in = ByteBuffer.wrap(bytes);
+    if (bytes.length < HEADER_SIZE || in.get() != MAGIC_0 || in.get() != MAGIC_1) {
+      throw new IllegalArgumentException("Not a sector grid");
+    }
+    byte version = in.get();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported sector grid version " + version);
+    }
+    int flags = in.get();
+    int width = Short.toUnsignedInt(in.getShort());
+    int height = Short.toUnsignedInt(in.getShort());
+    int depthStep = Short.toUnsignedInt(in.getShort());
+    // Vor jeder Allokation prüfen: ein kaputter Header könnte sonst Gigabytes anfordern.
+    if (width == 0 || height == 0 || width > MapSnapshot.SIZE || height > MapSnapshot.SIZE) {
+      throw new IllegalArgumentException("Invalid sector grid size " + width + "x" + height);
+    }
+
+    byte[] body = new byte[in.remaining()];
+    in.get(body);
+    byte[] cells = (flags & FLAG_DEFLATE) != 0 ? inflate(body, width * height * 2) : body;
+    if (cells.length < width * height * 2) {
+      throw new IllegalArgumentException("Truncated sector grid");
+    }
+
+    Ground[] grounds = Ground.values();
+    List<SectorInfo> sectors = new ArrayList<>(width * height);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int offset = (y * width + x) * 2;
+        int word = ((cells[offset] & 0xFF) << 8) | (cells[offset + 1] & 0xFF);
+        int groundCode = word >>> 12;
+        if (groundCode == 0 || groundCode > grounds.length) {
+          continue;
+        }
+        SectorInfo sector = new SectorInfo();
+        sector.setGround(grounds[groundCode - 1]);
+        sector.setDepth((word & MAX_DEPTH_UNITS) * depthStep);
+        sector.setSectorX(x);
+        sector.setSectorY(y);
+        sectors.add(sector);
+      }
+    }
+    return sectors.toArray(new SectorInfo[0]);
+  }
+
+  private static byte[] deflate(byte[] data) {
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+      byte[] buffer = new byte[4096];
+      while (!deflater.finished()) {
+        out.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return out.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  private static byte[] inflate(byte[] data, int expectedSize) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(data);
+      byte[] out = new byte[expectedSize];
+      int read = 0;
+      while (read < expectedSize && !inflater.finished()) {
+        int n = inflater.inflate(out, read, expectedSize - read);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        read += n;
+      }
+      return read == expectedSize ? out : Arrays.copyOf(out, read);
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Corrupt sector grid", e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.example.application.client;
+
+import com.example.application.entity.SectorInfo;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+/**
+ * WebClient decoder for {@link SectorGridCodec#MIME_TYPE} bodies into {@code SectorInfo[]}.
+ * Selected by the response content type, so JSON answers still go through the Jackson decoder.
+ */
+public class SectorGridDecoder extends AbstractDataBufferDecoder<SectorInfo[]> {
+
+  public SectorGridDecoder() {
+    super(SectorGridCodec.MIME_TYPE);
+  }
+
+  @Override
+  public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+    return elementType.toClass() == SectorInfo[].class && super.canDecode(elementType, mimeType);
+  }
+
+  @Override
+  public SectorInfo[] decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType,
+                             Map<String, Object> hints) {
+    byte[] bytes = new byte[buffer.readableByteCount()];
+    buffer.read(bytes);
+    DataBufferUtils.release(buffer);
+    try {
+      return SectorGridCodec.decode(bytes);
+    } catch (IllegalArgumentException e) {
+      throw new DecodingException(e.getMessage(), e);
+    }
+  }
+}
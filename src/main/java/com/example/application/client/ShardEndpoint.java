@@ -0,0 +1,69 @@
+package com.example.application.client;
+
+import com.example.application.config.ShipClientProperties;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/shards}: shows the ship-server shards and replaces them at runtime.
+ * POST {@code {"shards": "a=http://host:8091,b=http://host:8092"}}, one
+ * {@code name=url} per shard (ship and base server on the same URL) or
+ * {@code name=shipUrl|baseUrl}; an empty value goes back to the single configured server.
+ * Redirects all ship traffic, so it only exists in the {@code shards} profile and is not
+ * secured: keep the management port private.
+ */
+@Component
+@Profile("shards")
+@Endpoint(id = "shards")
+public class ShardEndpoint {
+
+  private final ShardRouter router;
+
+  public ShardEndpoint(ShardRouter router) {
+    this.router = router;
+  }
+
+  @ReadOperation
+  public Map<String, Object> shards() {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("sharded", router.isSharded());
+    result.put("shards", router.getShards());
+    result.put("knownShips", router.getKnownShips());
+    return result;
+  }
+
+  @WriteOperation
+  public Map<String, Object> reconfigure(String shards) {
+    List<ShipClientProperties.Shard> parsed = new ArrayList<>();
+    for (String entry : shards.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      String[] nameAndUrls = entry.trim().split("=", 2);
+      if (nameAndUrls.length != 2) {
+        throw new InvalidEndpointRequestException("Expected name=url, got " + entry, "Expected name=url");
+      }
+      String[] urls = nameAndUrls[1].split("\\|", 2);
+      ShipClientProperties.Shard shard = new ShipClientProperties.Shard();
+      shard.setName(nameAndUrls[0].trim());
+      shard.setShipServerUrl(urls[0].trim());
+      shard.setBaseServerUrl(urls.length > 1 ? urls[1].trim() : urls[0].trim());
+      parsed.add(shard);
+    }
+    try {
+      router.reconfigure(parsed);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+    }
+    return shards();
+  }
+}
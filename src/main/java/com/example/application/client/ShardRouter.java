@@ -0,0 +1,144 @@
+package com.example.application.client;
+
+import com.example.application.config.ShipClientProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Maps ships to ship-server shards ({@code ocean.client.shards}). Ship ids have the form
+ * {@code name#n}, so the ring key is the name: a launch and every later call for that ship
+ * hash to the same shard. Owners learned from launches and fleet-wide reads take
+ * precedence, so ships keep their shard when the shard set is reconfigured; only new ships
+ * follow the new ring. Without configured shards there is one implicit shard made of
+ * {@code ocean.client.ship-server} and {@code ocean.client.base-server}.
+ */
+@Component
+public class ShardRouter {
+
+  private final ShipClientProperties properties;
+  private volatile Topology topology;
+  private final Map<String, ShipClientProperties.Shard> owners = new ConcurrentHashMap<>();
+  private final List<Consumer<List<ShipClientProperties.Shard>>> listeners = new CopyOnWriteArrayList<>();
+
+  public ShardRouter(ShipClientProperties properties) {
+    this.properties = properties;
+    reconfigure(properties.getShards());
+  }
+
+  /**
+   * Replaces the shard set and rebuilds the ring; known ships on removed shards are forgotten.
+   * Throws IllegalArgumentException for blank or duplicate names and non-http(s) URLs.
+   */
+  public void reconfigure(List<ShipClientProperties.Shard> shards) {
+    validate(shards);
+    boolean sharded = !shards.isEmpty();
+    List<ShipClientProperties.Shard> nodes = sharded ? List.copyOf(shards) : List.of(implicitShard());
+    topology = new Topology(nodes, sharded,
+        new ConsistentHashRing<>(nodes, ShipClientProperties.Shard::getName, properties.getShardVirtualNodes()));
+    owners.values().removeIf(owner -> !nodes.contains(owner));
+    listeners.forEach(listener -> listener.accept(nodes));
+  }
+
+  /** Called with the new shard set after every reconfiguration, e.g. to drop connections to removed shards. */
+  public void onReconfigure(Consumer<List<ShipClientProperties.Shard>> listener) {
+    listeners.add(listener);
+  }
+
+  public List<ShipClientProperties.Shard> getShards() {
+    return topology.getShards();
+  }
+
+  public boolean isSharded() {
+    return topology.isSharded();
+  }
+
+  public int getKnownShips() {
+    return owners.size();
+  }
+
+  public ShipClientProperties.Shard shardFor(String shipId) {
+    ShipClientProperties.Shard owner = shipId != null ? owners.get(shipId) : null;
+    return owner != null ? owner : topology.getRing().nodeFor(routingKey(shipId));
+  }
+
+  public ShipClientProperties.Shard shardForLaunch(String shipName) {
+    return topology.getRing().nodeFor(shipName);
+  }
+
+  public void recordOwner(String shipId, ShipClientProperties.Shard shard) {
+    if (shipId != null && isSharded()) {
+      owners.put(shipId, shard);
+    }
+  }
+
+  public void forget(String shipId) {
+    if (shipId != null) {
+      owners.remove(shipId);
+    }
+  }
+
+  private static String routingKey(String shipId) {
+    if (shipId == null) {
+      return "";
+    }
+    int separator = shipId.lastIndexOf('#');
+    return separator > 0 ? shipId.substring(0, separator) : shipId;
+  }
+
+  private static void validate(List<ShipClientProperties.Shard> shards) {
+    Set<String> names = new HashSet<>();
+    for (ShipClientProperties.Shard shard : shards) {
+      String name = shard.getName();
+      if (name == null || name.isBlank() || !name.equals(name.trim())) {
+        throw new IllegalArgumentException("Shard name must not be blank: '" + name + "'");
+      }
+      if (!names.add(name)) {
+        throw new IllegalArgumentException("Duplicate shard name " + name);
+      }
+      validateUrl(name, shard.getShipServerUrl());
+      validateUrl(name, shard.getBaseServerUrl());
+    }
+  }
+
+  // Nur absolute http(s)-URLs ohne Benutzerdaten, Query oder Fragment.
+  private static void validateUrl(String shard, String url) {
+    URI uri;
+    try {
+      uri = url == null ? null : new URI(url);
+    } catch (URISyntaxException e) {
+      uri = null;
+    }
+    if (uri == null || uri.getHost() == null || uri.getUserInfo() != null
+        || uri.getQuery() != null || uri.getFragment() != null
+        || !("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))) {
+      throw new IllegalArgumentException("Shard " + shard + ": invalid server URL '" + url + "'");
+    }
+  }
+
+  private ShipClientProperties.Shard implicitShard() {
+    ShipClientProperties.Shard shard = new ShipClientProperties.Shard();
+    shard.setName("default");
+    shard.setShipServerUrl(properties.getShipServer().getBaseUrl());
+    shard.setBaseServerUrl(properties.getBaseServer().getBaseUrl());
+    return shard;
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static final class Topology {
+    private final List<ShipClientProperties.Shard> shards;
+    private final boolean sharded;
+    private final ConsistentHashRing<ShipClientProperties.Shard> ring;
+  }
+}
@@ -1,51 +1,395 @@
 package com.example.application.client;
+import com.example.application.config.ShipClientProperties;
 import com.example.application.entity.SectorInfo;
 import com.example.application.entity.ShipData;
 import com.example.application.entity.ShipSector;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+/**
+ * Base-server API. The sector map comes from {@code ocean.client.base-server}; ships and
+ * routes are read from the base server of every shard in parallel and merged.
+ */
 @Component
 public class ShipBaseServerClient {
 
-  private final WebClient webClient;
+  static final String MAP_VERSION_HEADER = "X-Map-Version";
+  static final String MAP_DELTA_HEADER = "X-Map-Delta";
+  static final MediaType SECTOR_GRID_MEDIA_TYPE = MediaType.asMediaType(SectorGridCodec.MIME_TYPE);
 
-  public ShipBaseServerClient(WebClient.Builder builder) {
-    this.webClient = builder
-        .baseUrl("http://localhost:8090")
-        .build();
+  private static final String SERVER_NAME = "base-server";
+  // So lange wird ein fehlender Einzelschiff-Endpunkt nicht erneut probiert.
+  private static final long ROUTE_PROBE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+  private final WebClient.Builder builder;
+  private final ShipClientProperties properties;
+  private final ShipClientProperties.Server server;
+  private final boolean binaryMap;
+  private final SingleFlight singleFlight;
+  private final ShipServerMetrics metrics;
+  private final AdmissionController admission;
+  private final ShardRouter router;
+  private final Map<String, ShardConnection> connections = new ConcurrentHashMap<>();
+  // Letzte erfolgreiche Karte als Fallback, wenn der Server nicht erreichbar ist.
+  private volatile List<SectorInfo> lastMap;
+
+  public ShipBaseServerClient(WebClient.Builder builder, ShipClientProperties properties, ShipServerMetrics metrics,
+      AdmissionController admission, ShardRouter router) {
+    this.builder = builder;
+    this.properties = properties;
+    this.server = properties.getBaseServer();
+    this.binaryMap = properties.isBinaryMap();
+    this.singleFlight = new SingleFlight(properties.getSingleFlightTtl());
+    this.metrics = metrics;
+    this.admission = admission;
+    this.router = router;
+    router.onReconfigure(this::evictRemovedShards);
   }
 
   public List<ShipData> loadShips() {
-    ShipData[] shipData = webClient.get()
+    return loadShipsAsync().block();
+  }
+
+  public Mono<List<ShipData>> loadShipsAsync() {
+    return singleFlight.execute("getAllShipData", () -> fanOut("getAllShipData", this::loadShipsFrom)
+        .map(perShard -> {
+          List<ShipData> ships = new ArrayList<>();
+          Set<String> seen = new HashSet<>();
+          for (List<ShipData> shardShips : perShard) {
+            for (ShipData ship : shardShips) {
+              if (ship.getShipId() == null || seen.add(ship.getShipId())) {
+                ships.add(ship);
+              }
+            }
+          }
+          return ships;
+        }));
+  }
+
+  private Mono<List<ShipData>> loadShipsFrom(ShipClientProperties.Shard shard) {
+    ShardConnection connection = shardConnection(shard);
+    return call(connection, "getAllShipData", true, webClient -> webClient.get()
         .uri("/shipBaseServerAPI/getAllShipData")
         .retrieve()
         .bodyToMono(ShipData[].class)
-        .block();
-    return shipData != null ? Arrays.asList(shipData) :  List.of();
+        .timeout(server.timeoutFor("getAllShipData")))
+        .map(Arrays::asList)
+        .defaultIfEmpty(List.of())
+        .doOnNext(ships -> {
+          connection.lastShips = ships;
+          ships.forEach(ship -> router.recordOwner(ship.getShipId(), shard));
+        })
+        .onErrorResume(ex -> connection.lastShips != null ? Mono.just(connection.lastShips) : Mono.error(ex));
   }
 
 
   public List<SectorInfo> loadMap(){
-    SectorInfo[] map = webClient.get()
-        .uri("/shipBaseServerAPI/allSectorInfo")
+    return loadMapAsync().block();
+  }
+
+  public Mono<List<SectorInfo>> loadMapAsync() {
+    return singleFlight.execute("allSectorInfo", () -> call(mapConnection(), "allSectorInfo", true,
+            webClient -> webClient.get()
+                .uri("/shipBaseServerAPI/allSectorInfo")
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(SectorInfo.class)
+                .collectList()
+                .timeout(server.timeoutFor("allSectorInfo")))
+        .doOnNext(map -> lastMap = map)
+        .onErrorResume(ex -> lastMap != null ? Mono.just(lastMap) : Mono.error(ex)));
+  }
+
+  /**
+   * Streams the sector map in chunks of {@code chunkSize} while the JSON array is still
+   * being read, so the full body is never buffered and the codec's in-memory limit does
+   * not apply. The download is a normal guarded call: the deadline covers the whole
+   * stream, and a retry starts over, so chunks may be delivered more than once.
+   */
+  public Flux<List<SectorInfo>> streamMapAsync(int chunkSize) {
+    return Flux.create(sink -> {
+      Disposable download = call(mapConnection(), "allSectorInfo", true, webClient -> webClient.get()
+          .uri("/shipBaseServerAPI/allSectorInfo")
+          .accept(MediaType.APPLICATION_JSON)
+          .retrieve()
+          .bodyToFlux(SectorInfo.class)
+          .buffer(chunkSize)
+          .doOnNext(sink::next)
+          .then()
+          .timeout(server.timeoutFor("allSectorInfo")))
+          .contextWrite(sink.contextView())
+          .subscribe(null, sink::error, sink::complete);
+      sink.onDispose(download);
+    });
+  }
+
+  /**
+   * Conditional map poll. Sends the snapshot's ETag as If-None-Match and its map version
+   * as {@code since} cursor: an unchanged map costs one 304, a server that supports the
+   * cursor answers with only the modified sectors ({@value #MAP_DELTA_HEADER}: true),
+   * and a full answer is diffed against the snapshot so callers only see real changes.
+   */
+  public Mono<MapDelta> loadMapChangesAsync(MapSnapshot since) {
+    // Schlüssel ist der Snapshot selbst: nur Abfragen mit demselben Cursor werden zusammengelegt.
+    return singleFlight.execute(List.of("allSectorInfo", since), () -> call(mapConnection(), "allSectorInfo", true,
+        webClient -> webClient.get()
+        .uri(uriBuilder -> {
+          uriBuilder.path("/shipBaseServerAPI/allSectorInfo");
+          if (since.getVersion() != null) {
+            uriBuilder.queryParam("since", since.getVersion());
+          }
+          return uriBuilder.build();
+        })
+        .headers(headers -> {
+          if (since.getEtag() != null) {
+            headers.setIfNoneMatch(since.getEtag());
+          }
+          // Binäres Gitter bevorzugt, JSON als Fallback für Server ohne Binärformat.
+          if (binaryMap) {
+            headers.setAccept(List.of(SECTOR_GRID_MEDIA_TYPE, MediaType.APPLICATION_JSON));
+          } else {
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+          }
+        })
+        .exchangeToMono(response -> {
+          if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            return Mono.just(MapDelta.unchanged(since));
+          }
+          if (response.statusCode().isError()) {
+            return response.createError();
+          }
+          HttpHeaders headers = response.headers().asHttpHeaders();
+          String etag = headers.getETag();
+          Long version = parseVersion(headers.getFirst(MAP_VERSION_HEADER));
+          boolean delta = Boolean.parseBoolean(headers.getFirst(MAP_DELTA_HEADER));
+          MediaType contentType = headers.getContentType();
+          Flux<SectorInfo> sectors = contentType != null && SECTOR_GRID_MEDIA_TYPE.isCompatibleWith(contentType)
+              ? response.bodyToMono(SectorInfo[].class).flatMapMany(Flux::fromArray)
+              : response.bodyToFlux(SectorInfo.class);
+          return sectors
+              .collect(() -> new MapMerge(since, delta), MapMerge::add)
+              .map(merge -> merge.finish(etag, version));
+        })
+        .timeout(server.timeoutFor("allSectorInfo")))
+        // Veralteter Stand statt Fehler: der Aufrufer behält einfach seinen Snapshot.
+        .onErrorResume(ex -> since != MapSnapshot.EMPTY ? Mono.just(MapDelta.unchanged(since)) : Mono.error(ex)));
+  }
+
+  // Baut den neuen Snapshot Sektor für Sektor auf, während die Antwort noch gelesen wird.
+  private static final class MapMerge {
+    private final SectorInfo[] previous;
+    private final SectorInfo[] grid;
+    private final boolean delta;
+    private final List<SectorInfo> changed = new ArrayList<>();
+
+    MapMerge(MapSnapshot since, boolean delta) {
+      this.previous = since.getGrid();
+      this.grid = delta ? previous.clone() : new SectorInfo[previous.length];
+      this.delta = delta;
+    }
+
+    void add(SectorInfo sector) {
+      if (sector == null || !MapSnapshot.inBounds(sector)) {
+        return;
+      }
+      int index = MapSnapshot.indexOf(sector);
+      if (delta || MapSnapshot.isVisiblyDifferent(previous[index], sector)) {
+        grid[index] = sector;
+        changed.add(sector);
+      } else {
+        // Unveränderte Sektoren behalten ihre Instanz, damit Snapshot-Vergleiche per Referenz greifen.
+        grid[index] = previous[index];
+      }
+    }
+
+    MapDelta finish(String etag, Long version) {
+      return new MapDelta(new MapSnapshot(etag, version, grid), changed, false);
+    }
+  }
+
+  private Long parseVersion(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Route sectors of one ship with an id greater than {@code afterId} (all if null), ordered by id.
+   * Falls back to filtering the full route map if the base server has no per-ship endpoint.
+   * A 404 only counts as a missing endpoint if the full map knows the ship; otherwise the ship
+   * is unknown or gone. A missing endpoint is probed again after a few minutes.
+   */
+  public Mono<List<ShipSector>> loadRouteAsync(String shipId, Long afterId) {
+    ShipClientProperties.Shard shard = router.shardFor(shipId);
+    ShardConnection connection = shardConnection(shard);
+    if (!connection.isPerShipRoutesSupported()) {
+      return loadRouteFromAllRoutes(shard, shipId, afterId);
+    }
+    return singleFlight.execute("getShipRoute:" + shipId + ":" + afterId, () -> call(connection, "getShipRoute", true,
+        webClient -> webClient.get()
+        .uri(uriBuilder -> {
+          uriBuilder.path("/shipBaseServerAPI/getShipRoute/{shipId}");
+          if (afterId != null) {
+            uriBuilder.queryParam("afterId", afterId);
+          }
+          return uriBuilder.build(shipId);
+        })
         .retrieve()
-        .bodyToMono(SectorInfo[].class)
-        .block();
-    return map != null ?Arrays.asList(map) : List.of();
+        .bodyToMono(ShipSector[].class)
+        .timeout(server.timeoutFor("getShipRoute")))
+        .map(Arrays::asList)
+        .defaultIfEmpty(List.of())
+        .doOnNext(route -> connection.perShipRoutesMissingSince = 0)
+        .onErrorResume(WebClientResponseException.NotFound.class, e -> loadRoutesFrom(shard)
+            .map(routes -> {
+              // Kennt die volle Karte das Schiff, fehlt der Endpunkt; sonst war das Schiff unbekannt.
+              if (routes.containsKey(shipId)) {
+                // "| 1" hält den Wert ungleich 0, das hieße "verfügbar".
+                connection.perShipRoutesMissingSince = System.nanoTime() | 1;
+              }
+              return routeAfter(routes, shipId, afterId);
+            })));
+  }
+
+  private Mono<List<ShipSector>> loadRouteFromAllRoutes(ShipClientProperties.Shard shard, String shipId, Long afterId) {
+    return loadRoutesFrom(shard).map(routes -> routeAfter(routes, shipId, afterId));
+  }
+
+  private static List<ShipSector> routeAfter(Map<String, List<ShipSector>> routes, String shipId, Long afterId) {
+    return routes.getOrDefault(shipId, List.of()).stream()
+        .filter(sector -> afterId == null || (sector.getId() != null && sector.getId() > afterId))
+        .toList();
   }
 
   public Map<String,List<ShipSector>> loadRoutes(){
-    return webClient.get()
+    return loadRoutesAsync().block();
+  }
+
+  public Mono<Map<String, List<ShipSector>>> loadRoutesAsync() {
+    return singleFlight.execute("getShipRoute", () -> fanOut("getShipRoute", this::loadRoutesFrom)
+        .map(perShard -> {
+          Map<String, List<ShipSector>> routes = new LinkedHashMap<>();
+          perShard.forEach(routes::putAll);
+          return routes;
+        }));
+  }
+
+  private Mono<Map<String, List<ShipSector>>> loadRoutesFrom(ShipClientProperties.Shard shard) {
+    return call(shardConnection(shard), "getShipRoute", true, webClient -> webClient.get()
         .uri("/shipBaseServerAPI/getShipRoute")
         .retrieve()
         .bodyToMono(new ParameterizedTypeReference<Map<String, List<ShipSector>>>() {})
-        .block(Duration.ofSeconds(10));
+        .timeout(server.timeoutFor("getShipRoute")))
+        .defaultIfEmpty(Map.of());
+  }
+
+  // Fragt alle Shards parallel; ausgefallene Shards fehlen im Ergebnis, solange mindestens einer antwortet.
+  private <T> Mono<List<T>> fanOut(String endpoint, Function<ShipClientProperties.Shard, Mono<T>> request) {
+    List<ShipClientProperties.Shard> shards = router.getShards();
+    if (shards.size() == 1) {
+      return request.apply(shards.get(0)).map(List::of);
+    }
+    return Flux.fromIterable(shards)
+        .flatMapSequential(shard -> request.apply(shard)
+            .map(Optional::of)
+            .onErrorResume(ex -> Mono.just(Optional.<T>empty())))
+        .collectList()
+        .flatMap(results -> results.stream().anyMatch(Optional::isPresent)
+            ? Mono.just(results.stream().flatMap(Optional::stream).toList())
+            : Mono.error(new UpstreamUnavailableException("no shard answered " + endpoint)));
+  }
+
+  private <T> Mono<T> call(ShardConnection connection, String endpoint, boolean idempotent,
+                           Function<WebClient, Mono<T>> request) {
+    return metrics.observe(connection.serverName, endpoint,
+        () -> connection.guard.call(endpoint, idempotent, () -> request.apply(connection.webClient)));
+  }
+
+  // Die Karte kommt immer vom konfigurierten Base-Server, unabhängig von den Shards.
+  private ShardConnection mapConnection() {
+    return connection(SERVER_NAME, server.getBaseUrl());
+  }
+
+  private ShardConnection shardConnection(ShipClientProperties.Shard shard) {
+    return connection(serverName(shard), shard.getBaseServerUrl());
+  }
+
+  private String serverName(ShipClientProperties.Shard shard) {
+    return router.isSharded() ? SERVER_NAME + ":" + shard.getName() : SERVER_NAME;
+  }
+
+  private ShardConnection connection(String serverName, String baseUrl) {
+    return connections.computeIfAbsent(serverName + "@" + baseUrl, key -> new ShardConnection(serverName, baseUrl));
+  }
+
+  // Verbindungen entfernter Shards verwerfen, samt Admission-Warteschlange und Metriken; die Kartenverbindung bleibt.
+  private void evictRemovedShards(List<ShipClientProperties.Shard> shards) {
+    Set<String> keys = new HashSet<>();
+    Set<String> serverNames = new HashSet<>();
+    keys.add(SERVER_NAME + "@" + server.getBaseUrl());
+    serverNames.add(SERVER_NAME);
+    for (ShipClientProperties.Shard shard : shards) {
+      keys.add(serverName(shard) + "@" + shard.getBaseServerUrl());
+      serverNames.add(serverName(shard));
+    }
+    connections.entrySet().removeIf(entry -> {
+      if (keys.contains(entry.getKey())) {
+        return false;
+      }
+      String serverName = entry.getValue().serverName;
+      if (!serverNames.contains(serverName)) {
+        admission.forget(serverName);
+        metrics.removeServer(serverName);
+      }
+      return true;
+    });
+  }
+
+  private final class ShardConnection {
+    private final String serverName;
+    private final WebClient webClient;
+    private final UpstreamGuard guard;
+    // Letzte erfolgreiche Schiffsliste als Fallback, wenn der Server nicht erreichbar ist.
+    private volatile List<ShipData> lastShips;
+    // nanoTime des 404 für ein bekanntes Schiff, 0 = Einzelschiff-Endpunkt verfügbar
+    private volatile long perShipRoutesMissingSince;
+
+    ShardConnection(String serverName, String baseUrl) {
+      this.serverName = serverName;
+      this.webClient = builder.clone()
+          .baseUrl(baseUrl)
+          .build();
+      this.guard = new UpstreamGuard(serverName, properties, metrics, admission);
+    }
+
+    boolean isPerShipRoutesSupported() {
+      long missingSince = perShipRoutesMissingSince;
+      return missingSince == 0 || System.nanoTime() - missingSince > ROUTE_PROBE_INTERVAL_NANOS;
+    }
   }
 }
@@ -1,52 +1,96 @@
 package com.example.application.client;
 
+import com.example.application.config.ShipClientProperties;
 import com.example.application.entity.*;
 import com.example.application.entity.ScanResult;
 import org.jspecify.annotations.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Ship-server API. Calls for a ship go to the shard that owns it (see {@link ShardRouter});
+ * every shard has its own connection, circuit breaker and admission bucket.
+ */
 @Component
 public class ShipClient {
 
-  private final WebClient webClient;
+  private static final String SERVER_NAME = "ship-server";
+
+  private final WebClient.Builder builder;
+  private final ShipClientProperties properties;
+  private final ShipClientProperties.Server server;
+  private final SingleFlight singleFlight;
+  private final ShipServerMetrics metrics;
+  private final AdmissionController admission;
+  private final ShardRouter router;
+  private final Map<String, ShardConnection> connections = new ConcurrentHashMap<>();
 
-  public ShipClient(WebClient.Builder builder) {
-    this.webClient = builder
-        .baseUrl("http://localhost:8080")
-        .build();
+  public ShipClient(WebClient.Builder builder, ShipClientProperties properties, ShipServerMetrics metrics,
+      AdmissionController admission, ShardRouter router) {
+    this.builder = builder;
+    this.properties = properties;
+    this.server = properties.getShipServer();
+    this.singleFlight = new SingleFlight(properties.getSingleFlightTtl());
+    this.metrics = metrics;
+    this.admission = admission;
+    this.router = router;
+    router.onReconfigure(this::evictRemovedShards);
   }
 
   public String launch(String name, int x, int y, int dx, int dy) {
-    try {
-      return webClient.post()
-          .uri(uriBuilder -> uriBuilder
-              .path("/api/ship/launch")
-              .queryParam("name", name)
-              .queryParam("x", x)
-              .queryParam("y", y)
-              .queryParam("dx", dx)
-              .queryParam("dy", dy)
-              .build())
-          .retrieve()
-          .bodyToMono(String.class)
-          .block();
-    } catch (WebClientResponseException e) {
-      return e.getResponseBodyAsString();
-    }
+    return launchAsync(name, x, y, dx, dy).block();
+  }
+
+  public Mono<String> launchAsync(String name, int x, int y, int dx, int dy) {
+    ShipClientProperties.Shard shard = router.shardForLaunch(name);
+    return call(shard, "launch", false, webClient -> webClient.post()
+        .uri(uriBuilder -> uriBuilder
+            .path("/api/ship/launch")
+            .queryParam("name", name)
+            .queryParam("x", x)
+            .queryParam("y", y)
+            .queryParam("dx", dx)
+            .queryParam("dy", dy)
+            .build())
+        .retrieve()
+        .bodyToMono(String.class)
+        .timeout(server.timeoutFor("launch")))
+        .doOnNext(shipId -> {
+          if (shipId.contains("#")) {
+            router.recordOwner(shipId, shard);
+          }
+        })
+        .onErrorResume(WebClientResponseException.class, e -> Mono.just(e.getResponseBodyAsString()));
   }
 
   public EchoData radar(String shipId) {
-    return webClient.get()
+    return radarAsync(shipId).block();
+  }
+
+  public Mono<EchoData> radarAsync(String shipId) {
+    return singleFlight.execute("radar:" + shipId, () -> call(router.shardFor(shipId), "radar", true,
+        webClient -> webClient.get()
         .uri("/api/ship/radar?shipId={shipId}", shipId)
         .retrieve()
         .bodyToMono(EchoData.class)
-        .block();
+        .timeout(server.timeoutFor("radar"))));
   }
 
   public @Nullable Vec2D navigation(String shipId, Course course, Rudder rudder) {
-    return webClient.get()
+    return navigationAsync(shipId, course, rudder).block();
+  }
+
+  public Mono<Vec2D> navigationAsync(String shipId, Course course, Rudder rudder) {
+    return call(router.shardFor(shipId), "navigate", false, webClient -> webClient.get()
         .uri(uriBuilder -> uriBuilder
             .path("/api/ship/navigate")
             .queryParam("shipId", shipId)
@@ -55,40 +99,106 @@ public class ShipClient {
             .build())
         .retrieve()
         .bodyToMono(Vec2D.class)
-        .block();
+        .timeout(server.timeoutFor("navigate")));
   }
 
   public ScanResult scan(String shipId) {
-    return webClient.get()
+    return scanAsync(shipId).block();
+  }
+
+  public Mono<ScanResult> scanAsync(String shipId) {
+    return singleFlight.execute("scan:" + shipId, () -> call(router.shardFor(shipId), "scan", true,
+        webClient -> webClient.get()
         .uri(uriBuilder -> uriBuilder
             .path("/api/ship/scan")
             .queryParam("shipId",shipId)
             .build())
         .retrieve()
         .bodyToMono(ScanResult.class)
-        .block();
+        .timeout(server.timeoutFor("scan"))));
   }
 
   public AutoPilotData autoPilot(String shipId) {
-    return webClient.post()
+    return autoPilotAsync(shipId).block();
+  }
+
+  public Mono<AutoPilotData> autoPilotAsync(String shipId) {
+    return call(router.shardFor(shipId), "autoPilot", false, webClient -> webClient.post()
         .uri(uriBuilder -> uriBuilder
             .path("/api/ship/autoPilot")
             .queryParam("shipId", shipId)
             .build())
         .retrieve()
         .bodyToMono(AutoPilotData.class)
-        .block();
+        .timeout(server.timeoutFor("autoPilot")));
   }
 
   public void exit(String shipId) {
-    webClient.post()
+    exitAsync(shipId).block();
+  }
+
+  public Mono<Void> exitAsync(String shipId) {
+    return call(router.shardFor(shipId), "exit", false, webClient -> webClient.post()
         .uri(uriBuilder -> uriBuilder
             .path("/api/ship/exit")
             .queryParam("shipId",shipId)
             .build())
         .retrieve()
         .bodyToMono(Void.class)
-        .block();
+        .timeout(server.timeoutFor("exit")))
+        .doOnSuccess(ignored -> router.forget(shipId));
+  }
+
+  private <T> Mono<T> call(ShipClientProperties.Shard shard, String endpoint, boolean idempotent,
+                           Function<WebClient, Mono<T>> request) {
+    ShardConnection connection = connection(shard);
+    return metrics.observe(connection.serverName, endpoint,
+        () -> connection.guard.call(endpoint, idempotent, () -> request.apply(connection.webClient)));
+  }
+
+  // Verbindungen leben pro Shard-URL, damit eine Neukonfiguration keine alten Clients weiterverwendet.
+  private ShardConnection connection(ShipClientProperties.Shard shard) {
+    String serverName = serverName(shard);
+    return connections.computeIfAbsent(serverName + "@" + shard.getShipServerUrl(),
+        key -> new ShardConnection(serverName, shard.getShipServerUrl()));
   }
 
+  private String serverName(ShipClientProperties.Shard shard) {
+    return router.isSharded() ? SERVER_NAME + ":" + shard.getName() : SERVER_NAME;
+  }
+
+  // Verbindungen entfernter Shards verwerfen, samt Admission-Warteschlange und Metriken des Servers.
+  private void evictRemovedShards(List<ShipClientProperties.Shard> shards) {
+    Set<String> keys = new HashSet<>();
+    Set<String> serverNames = new HashSet<>();
+    for (ShipClientProperties.Shard shard : shards) {
+      keys.add(serverName(shard) + "@" + shard.getShipServerUrl());
+      serverNames.add(serverName(shard));
+    }
+    connections.entrySet().removeIf(entry -> {
+      if (keys.contains(entry.getKey())) {
+        return false;
+      }
+      String serverName = entry.getValue().serverName;
+      if (!serverNames.contains(serverName)) {
+        admission.forget(serverName);
+        metrics.removeServer(serverName);
+      }
+      return true;
+    });
+  }
+
+  private final class ShardConnection {
+    private final String serverName;
+    private final WebClient webClient;
+    private final UpstreamGuard guard;
+
+    ShardConnection(String serverName, String baseUrl) {
+      this.serverName = serverName;
+      this.webClient = builder.clone()
+          .baseUrl(baseUrl)
+          .build();
+      this.guard = new UpstreamGuard(serverName, properties, metrics, admission);
+    }
+  }
 }
@@ -0,0 +1,183 @@
+package com.example.application.client;
+
+import com.example.application.diagnostics.HttpCallEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation for ship-server calls. Every call becomes a
+ * {@code ship.client.requests} observation (timer + span) tagged with server and endpoint,
+ * nested under the {@code ocean.command} observation of the UI action that caused it.
+ * Errors are counted in {@code ship.client.errors}, response bodies in
+ * {@code ship.client.response.size}. Single outbound attempts, without retries and hedges,
+ * are timed in {@code ship.client.attempts}.
+ */
+@Component
+public class ShipServerMetrics {
+
+  private static final String SERVER_KEY = "ship.server";
+  private static final String ENDPOINT_KEY = "ship.endpoint";
+  private static final double[] ATTEMPT_PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+  // Unter dieser Stichprobengröße ist ein Perzentil nicht belastbar.
+  private static final long MIN_PERCENTILE_SAMPLES = 50;
+
+  private final MeterRegistry meterRegistry;
+  private final ObservationRegistry observationRegistry;
+
+  public ShipServerMetrics(MeterRegistry meterRegistry, ObservationRegistry observationRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.observationRegistry = observationRegistry;
+  }
+
+  public <T> Mono<T> observe(String server, String endpoint, Supplier<Mono<T>> call) {
+    return Mono.deferContextual(context -> {
+      HttpCallEvent event = new HttpCallEvent();
+      event.setServer(server);
+      event.setEndpoint(endpoint);
+      event.begin();
+      Observation observation = Observation.createNotStarted("ship.client.requests", observationRegistry)
+          .contextualName(server + " " + endpoint)
+          .lowCardinalityKeyValue("server", server)
+          .lowCardinalityKeyValue("endpoint", endpoint)
+          .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+          .start();
+      return call.get()
+          .doOnError(ex -> {
+            observation.error(ex);
+            event.setOutcome(ex.getClass().getSimpleName());
+            Counter.builder("ship.client.errors")
+                .tag("server", server)
+                .tag("endpoint", endpoint)
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+          })
+          .doFinally(signal -> {
+            observation.stop();
+            if (signal != SignalType.ON_ERROR) {
+              event.setOutcome(signal == SignalType.CANCEL ? "cancelled" : "success");
+            }
+            event.commit();
+          })
+          .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation)
+              .put(SERVER_KEY, server)
+              .put(ENDPOINT_KEY, endpoint));
+    });
+  }
+
+  /**
+   * Parent observation for one UI action in ShipCommandService; HTTP calls made while
+   * serving it become child spans.
+   */
+  public <T> Mono<T> observeCommand(String action, Supplier<Mono<T>> command) {
+    return Mono.deferContextual(context -> {
+      Observation observation = Observation.createNotStarted("ocean.command", observationRegistry)
+          .contextualName(action)
+          .lowCardinalityKeyValue("action", action)
+          .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+          .start();
+      return command.get()
+          .doOnError(observation::error)
+          .doFinally(signal -> observation.stop())
+          .contextWrite(ctx -> ctx.put(ObservationThreadLocalAccessor.KEY, observation));
+    });
+  }
+
+  /**
+   * Times one outbound attempt in {@code ship.client.attempts}; only successful attempts are
+   * recorded. Unlike {@code ship.client.requests} this excludes retries and hedges, so the
+   * hedge delay derived from it does not feed on itself.
+   */
+  public <T> Mono<T> timeAttempt(String server, String endpoint, Mono<T> attempt) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return attempt.doOnSuccess(value -> attemptTimer(server, endpoint)
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    });
+  }
+
+  /**
+   * Latency of successful single attempts at the smallest published percentile that is at
+   * least {@code percentile}, or null while there are too few samples.
+   */
+  public Duration latencyPercentile(String server, String endpoint, double percentile) {
+    Timer timer = meterRegistry.find("ship.client.attempts")
+        .tag("server", server)
+        .tag("endpoint", endpoint)
+        .timer();
+    if (timer == null || timer.count() < MIN_PERCENTILE_SAMPLES) {
+      return null;
+    }
+    ValueAtPercentile match = null;
+    for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+      if (value.percentile() >= percentile && (match == null || value.percentile() < match.percentile())) {
+        match = value;
+      }
+    }
+    return match == null ? null : Duration.ofNanos((long) match.value(TimeUnit.NANOSECONDS));
+  }
+
+  /**
+   * Counts hedged requests: {@code sent}, {@code won} (answered first), {@code suppressed} by
+   * the budget or {@code skipped} because the circuit breaker was not closed.
+   */
+  public void recordHedge(String server, String endpoint, String result) {
+    Counter.builder("ship.client.hedges")
+        .tag("server", server)
+        .tag("endpoint", endpoint)
+        .tag("result", result)
+        .register(meterRegistry)
+        .increment();
+  }
+
+  private Timer attemptTimer(String server, String endpoint) {
+    return Timer.builder("ship.client.attempts")
+        .tag("server", server)
+        .tag("endpoint", endpoint)
+        .publishPercentiles(ATTEMPT_PERCENTILES)
+        .register(meterRegistry);
+  }
+
+  /** Removes all meters tagged with {@code server}, e.g. after its shard was removed. */
+  public void removeServer(String server) {
+    meterRegistry.getMeters().stream()
+        .filter(meter -> server.equals(meter.getId().getTag("server")))
+        .toList()
+        .forEach(meterRegistry::remove);
+  }
+
+  /**
+   * Records the size of every response body, tagged with the server and endpoint from
+   * the Reactor context set up by {@link #observe}.
+   */
+  public ExchangeFilterFunction responseSizeFilter() {
+    return (request, next) -> Mono.deferContextual(context -> next.exchange(request).map(response -> {
+      DistributionSummary summary = DistributionSummary.builder("ship.client.response.size")
+          .baseUnit("bytes")
+          .tag("server", context.getOrDefault(SERVER_KEY, "unknown"))
+          .tag("endpoint", context.getOrDefault(ENDPOINT_KEY, "unknown"))
+          .register(meterRegistry);
+      AtomicLong bytes = new AtomicLong();
+      return response.mutate()
+          .body(body -> body
+              .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+              .doOnComplete(() -> summary.record(bytes.get())))
+          .build();
+    }));
+  }
+}
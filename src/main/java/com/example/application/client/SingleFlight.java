@@ -0,0 +1,75 @@
+package com.example.application.client;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads: all callers with the same key while a request is in
+ * flight share its result. With a positive TTL a successful result is also served to callers
+ * arriving shortly after it completed. Errors are never kept.
+ * <p>
+ * The shared load does not run in the context of whoever happened to start it: it has no
+ * session (admission bills it to the shared background lane) and no parent observation, so
+ * its HTTP spans are roots rather than children of one caller's command. Its priority is the
+ * highest of all callers waiting for it; a caller joining with a higher priority raises it
+ * via {@link AdmissionController#PRIORITY_UPGRADES_KEY}, also while it waits for admission.
+ */
+public class SingleFlight {
+
+  private final Map<Object, Flight<?>> inFlight = new ConcurrentHashMap<>();
+  private final Duration ttl;
+
+  public SingleFlight(Duration ttl) {
+    this.ttl = ttl;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> Mono<T> execute(Object key, Supplier<Mono<T>> loader) {
+    return Mono.deferContextual(context -> {
+      Flight<T> flight = (Flight<T>) inFlight.computeIfAbsent(key, k -> new Flight<>(k, loader));
+      flight.raise(context.getOrDefault(AdmissionController.PRIORITY_KEY, RequestPriority.BACKGROUND));
+      return flight.shared;
+    });
+  }
+
+  private void evict(Object key, Flight<?> flight, SignalType signal) {
+    if (ttl.isZero() || ttl.isNegative() || signal != SignalType.ON_COMPLETE) {
+      inFlight.remove(key, flight);
+    } else {
+      Schedulers.parallel().schedule(() -> inFlight.remove(key, flight), ttl.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private final class Flight<T> {
+    private final AtomicReference<RequestPriority> priority = new AtomicReference<>(RequestPriority.BACKGROUND);
+    private final Sinks.Many<RequestPriority> upgrades = Sinks.many().replay().latest();
+    private final Mono<T> shared;
+
+    Flight(Object key, Supplier<Mono<T>> loader) {
+      this.shared = Mono.defer(loader)
+          .doFinally(signal -> evict(key, this, signal))
+          // Ersetzt den Kontext des ersten Aufrufers vollständig.
+          .contextWrite(ignored -> Context.of(
+              AdmissionController.PRIORITY_KEY, priority.get(),
+              AdmissionController.PRIORITY_UPGRADES_KEY, upgrades.asFlux()))
+          .cache();
+    }
+
+    synchronized void raise(RequestPriority requested) {
+      if (requested.compareTo(priority.get()) < 0) {
+        priority.set(requested);
+        upgrades.tryEmitNext(requested);
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.example.application.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in GCRA form: the whole state is one theoretical arrival time,
+ * so acquiring a token is a single compare-and-set. {@code burst} tokens may be taken at
+ * once, after that one token per {@code 1 / ratePerSecond}. A rate of 0 means unlimited.
+ */
+final class TokenBucket {
+
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final AtomicLong theoreticalArrival;
+
+  TokenBucket(double ratePerSecond, int burst) {
+    this.intervalNanos = ratePerSecond > 0 ? (long) (1_000_000_000L / ratePerSecond) : 0;
+    this.toleranceNanos = intervalNanos * Math.max(1, burst);
+    this.theoreticalArrival = new AtomicLong(System.nanoTime() - toleranceNanos);
+  }
+
+  /** 0 if a token was taken, otherwise the nanoseconds until the next one is available. */
+  long tryAcquire() {
+    if (intervalNanos == 0) {
+      return 0;
+    }
+    while (true) {
+      long now = System.nanoTime();
+      long arrival = theoreticalArrival.get();
+      long next = Math.max(arrival, now) + intervalNanos;
+      long allowedAt = next - toleranceNanos;
+      if (allowedAt > now) {
+        return allowedAt - now;
+      }
+      if (theoreticalArrival.compareAndSet(arrival, next)) {
+        return 0;
+      }
+    }
+  }
+
+  // Gibt einen Token zurück, der genommen, aber nicht genutzt wurde.
+  void refund() {
+    if (intervalNanos > 0) {
+      theoreticalArrival.addAndGet(-intervalNanos);
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.example.application.client;
+
+import com.example.application.config.ShipClientProperties;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Resilience wrapper for all calls to one server: a circuit breaker for the server, a
+ * bulkhead per endpoint, budgeted retries and optional hedging for idempotent reads. Every
+ * outbound attempt, including each retry and hedge, is admitted separately by the
+ * {@link AdmissionController}, so its buckets limit requests actually sent. Rejections fail
+ * fast with {@link UpstreamUnavailableException} instead of queueing.
+ */
+public class UpstreamGuard {
+
+  private final String serverName;
+  private final ShipClientProperties.Resilience resilience;
+  private final CircuitBreaker circuitBreaker;
+  private final RetryBudget retryBudget;
+  private final RequestHedger hedger;
+  private final ShipServerMetrics metrics;
+  private final AdmissionController admission;
+  private final Map<String, AtomicInteger> bulkheads = new ConcurrentHashMap<>();
+
+  public UpstreamGuard(String serverName, ShipClientProperties properties, ShipServerMetrics metrics,
+                       AdmissionController admission) {
+    ShipClientProperties.Resilience resilience = properties.getResilience();
+    this.serverName = serverName;
+    this.resilience = resilience;
+    this.circuitBreaker = new CircuitBreaker(resilience);
+    this.retryBudget = new RetryBudget(resilience.getRetryBudgetRatio(), resilience.getRetryBudgetMaxTokens());
+    this.hedger = new RequestHedger(serverName, properties.getHedging(), metrics, circuitBreaker);
+    this.metrics = metrics;
+    this.admission = admission;
+  }
+
+  public String getCircuitState() {
+    return circuitBreaker.getState().name();
+  }
+
+  public <T> Mono<T> call(String endpoint, boolean idempotent, Supplier<Mono<T>> request) {
+    boolean hedged = idempotent && hedger.isHedged(endpoint);
+    // Jeder Hedge-Versuch holt sich eigene Circuit-Breaker- und Bulkhead-Freigaben.
+    Mono<T> attempt = hedged
+        ? hedger.hedge(endpoint, () -> attempt(endpoint, request))
+        : Mono.defer(() -> attempt(endpoint, request));
+    Mono<T> call = attempt;
+    if (idempotent && resilience.getMaxRetries() > 0) {
+      call = Mono.defer(() -> {
+        retryBudget.deposit();
+        return attempt.retryWhen(Retry.backoff(resilience.getMaxRetries(), resilience.getRetryBackoff())
+            .filter(ex -> isTransient(ex) && retryBudget.tryWithdraw())
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+      });
+    }
+    if (!hedged) {
+      return call;
+    }
+    // Hedge-Budget einmal je logischem Aufruf auffüllen, nicht bei jeder Wiederholung.
+    Mono<T> guarded = call;
+    return Mono.defer(() -> {
+      hedger.deposit();
+      return guarded;
+    });
+  }
+
+  // Erst das Admission-Token, dann Circuit Breaker und Bulkhead: wer wartet, belegt keinen Probe-Slot.
+  private <T> Mono<T> attempt(String endpoint, Supplier<Mono<T>> request) {
+    return admission.admit(serverName, () -> send(endpoint, request));
+  }
+
+  private <T> Mono<T> send(String endpoint, Supplier<Mono<T>> request) {
+    if (!circuitBreaker.tryAcquirePermission()) {
+      return Mono.error(new UpstreamUnavailableException(serverName + " circuit is open"));
+    }
+    AtomicInteger inFlight = bulkheads.computeIfAbsent(endpoint, key -> new AtomicInteger());
+    if (inFlight.incrementAndGet() > resilience.getMaxConcurrentCallsPerEndpoint()) {
+      inFlight.decrementAndGet();
+      circuitBreaker.onIgnored();
+      return Mono.error(new UpstreamUnavailableException(serverName + "/" + endpoint + " bulkhead is full"));
+    }
+    return metrics.timeAttempt(serverName, endpoint, request.get())
+        .doOnSuccess(value -> circuitBreaker.onSuccess())
+        .doOnError(ex -> {
+          if (isTransient(ex)) {
+            circuitBreaker.onFailure();
+          } else {
+            circuitBreaker.onIgnored();
+          }
+        })
+        .doOnCancel(circuitBreaker::onIgnored)
+        .doFinally(signal -> inFlight.decrementAndGet());
+  }
+
+  // Nur Server-/Transportfehler zählen; 4xx ist ein Fehler der Anfrage, nicht des Servers.
+  static boolean isTransient(Throwable ex) {
+    if (ex instanceof WebClientResponseException responseException) {
+      return responseException.getStatusCode().is5xxServerError();
+    }
+    return ex instanceof WebClientRequestException || ex instanceof TimeoutException;
+  }
+}
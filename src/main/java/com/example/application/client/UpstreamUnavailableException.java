@@ -0,0 +1,12 @@
+package com.example.application.client;
+
+/**
+ * Raised without contacting the server when its circuit is open, an endpoint's bulkhead is full
+ * or admission control rejects the call.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+  public UpstreamUnavailableException(String message) {
+    super(message);
+  }
+}
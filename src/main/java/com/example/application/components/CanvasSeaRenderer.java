@@ -0,0 +1,241 @@
+package com.example.application.components;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.Style;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Paints the whole grid into one {@code <canvas>} in the browser. The server keeps only
+ * a color per cell and sends changes as a compact binary batch (base64, 8 bytes per cell:
+ * op and index, RGBA) once per server round trip; ships are drawn as sprites on top.
+ */
+class CanvasSeaRenderer implements SeaRenderer {
+
+  private static final int OP_PAINT = 0;
+  private static final int OP_HIGHLIGHT = 1;
+  private static final Map<String, Integer> RGBA_CACHE = new ConcurrentHashMap<>();
+
+  private static final String INSTALL_JS = """
+      const host = this;
+      const canvas = host.firstElementChild;
+      const ctx = canvas.getContext('2d');
+      const n = $0;
+      const colors = new Uint32Array(n * n).fill($1);
+      const outlines = new Uint32Array(n * n);
+      const ships = new Map();
+      const styles = new Map();
+      const shipImage = new Image();
+      let frame = 0;
+      const style = rgba => {
+        let s = styles.get(rgba);
+        if (!s) {
+          s = 'rgba(' + (rgba >>> 24) + ',' + ((rgba >>> 16) & 255) + ',' + ((rgba >>> 8) & 255) + ',' + ((rgba & 255) / 255) + ')';
+          styles.set(rgba, s);
+        }
+        return s;
+      };
+      const draw = () => {
+        frame = 0;
+        const size = Math.min(4096, Math.round(host.clientWidth * (window.devicePixelRatio || 1)));
+        if (size <= 0) return;
+        if (canvas.width !== size) {
+          canvas.width = size;
+          canvas.height = size;
+        }
+        const cell = size / n;
+        ctx.clearRect(0, 0, size, size);
+        for (let i = 0; i < n * n; i++) {
+          const px = Math.floor(i / n) * cell;
+          const py = (n - 1 - i % n) * cell;
+          ctx.fillStyle = style(colors[i]);
+          ctx.fillRect(px, py, Math.ceil(cell), Math.ceil(cell));
+          if (outlines[i]) {
+            const width = Math.max(1, cell * 0.15);
+            ctx.strokeStyle = style(outlines[i]);
+            ctx.lineWidth = width;
+            ctx.strokeRect(px + width / 2, py + width / 2, cell - width, cell - width);
+          }
+        }
+        if (shipImage.complete && shipImage.naturalWidth) {
+          for (const ship of ships.values()) {
+            ctx.save();
+            ctx.translate((ship.x + 0.5) * cell, (n - 1 - ship.y + 0.5) * cell);
+            ctx.rotate(ship.deg * Math.PI / 180);
+            ctx.drawImage(shipImage, -cell / 2, -cell / 2, cell, cell);
+            ctx.restore();
+          }
+        }
+      };
+      const schedule = () => {
+        if (!frame) frame = requestAnimationFrame(draw);
+      };
+      host.__sea = {
+        apply(batch) {
+          const bytes = Uint8Array.from(atob(batch), c => c.charCodeAt(0));
+          const view = new DataView(bytes.buffer);
+          for (let o = 0; o + 8 <= bytes.length; o += 8) {
+            const word = view.getUint32(o);
+            const rgba = view.getUint32(o + 4);
+            const i = word & 0xffff;
+            colors[i] = rgba;
+            if ((word >>> 16) === 1) outlines[i] = rgba;
+          }
+          schedule();
+        },
+        ship(id, x, y, deg) {
+          ships.set(id, {x, y, deg});
+          schedule();
+        },
+        removeShip(id) {
+          ships.delete(id);
+          schedule();
+        }
+      };
+      shipImage.onload = schedule;
+      shipImage.src = 'images/ship.png';
+      new ResizeObserver(schedule).observe(host);
+      schedule();
+      """;
+
+  private final Div host = new Div();
+  private final String[] colors = new String[Sea.SIZE * Sea.SIZE];
+  private final String[] outlines = new String[Sea.SIZE * Sea.SIZE];
+  private final Map<String, int[]> ships = new LinkedHashMap<>();
+  // Änderungen seit dem letzten Roundtrip: je zwei ints (Op << 16 | Index, RGBA)
+  private int[] pending = new int[256];
+  private int pendingCount;
+  private boolean flushScheduled;
+
+  CanvasSeaRenderer(int size) {
+    Element canvas = new Element("canvas");
+    canvas.getStyle()
+        .setWidth("100%")
+        .setHeight("100%")
+        .setDisplay(Style.Display.BLOCK);
+    host.getElement().appendChild(canvas);
+    host.getStyle()
+        .setWidth(size + "px")
+        .setHeight(size + "px")
+        .setBackground(Sea.INITIAL_COLOR);
+    // Nach jedem (Re-)Attach ist der Browser-Zustand leer: Skript installieren und alles einmal senden.
+    host.addAttachListener(event -> sendFullState());
+  }
+
+  @Override
+  public Component getComponent() {
+    return host;
+  }
+
+  @Override
+  public void createCells() {
+    Arrays.fill(colors, Sea.INITIAL_COLOR);
+  }
+
+  @Override
+  public void paintCell(int x, int y, int paletteIndex) {
+    String color = SeaPalette.color(paletteIndex);
+    int index = indexOf(x, y);
+    colors[index] = color;
+    enqueue(OP_PAINT, index, color);
+  }
+
+  @Override
+  public void highlightCell(int x, int y, String color) {
+    int index = indexOf(x, y);
+    colors[index] = color;
+    outlines[index] = color;
+    enqueue(OP_HIGHLIGHT, index, color);
+  }
+
+  @Override
+  public void placeShip(String shipId, String shipName, int x, int y, int rotationDegrees) {
+    ships.put(shipId, new int[]{x, y, rotationDegrees});
+    if (host.isAttached()) {
+      host.getElement().executeJs("this.__sea && this.__sea.ship($0, $1, $2, $3)", shipId, x, y, rotationDegrees);
+    }
+  }
+
+  @Override
+  public void removeShip(String shipId) {
+    if (ships.remove(shipId) != null && host.isAttached()) {
+      host.getElement().executeJs("this.__sea && this.__sea.removeShip($0)", shipId);
+    }
+  }
+
+  @Override
+  public void setSize(int pixels) {
+    host.getStyle()
+        .setWidth(pixels + "px")
+        .setHeight(pixels + "px");
+  }
+
+  private void sendFullState() {
+    host.getElement().executeJs(INSTALL_JS, Sea.SIZE, rgba(Sea.INITIAL_COLOR));
+    pendingCount = 0;
+    for (int index = 0; index < colors.length; index++) {
+      if (outlines[index] != null) {
+        // Erst die Umrandung, dann die aktuelle Füllfarbe darüber
+        enqueue(OP_HIGHLIGHT, index, outlines[index]);
+        enqueue(OP_PAINT, index, colors[index]);
+      } else if (colors[index] != null && !Sea.INITIAL_COLOR.equals(colors[index])) {
+        enqueue(OP_PAINT, index, colors[index]);
+      }
+    }
+    ships.forEach((shipId, ship) ->
+        host.getElement().executeJs("this.__sea.ship($0, $1, $2, $3)", shipId, ship[0], ship[1], ship[2]));
+  }
+
+  private void enqueue(int op, int index, String color) {
+    // Solange nichts im Browser ist, genügt der Zustand hier; sendFullState() überträgt ihn beim Attach.
+    if (!host.isAttached()) {
+      return;
+    }
+    if (pendingCount + 2 > pending.length) {
+      pending = Arrays.copyOf(pending, pending.length * 2);
+    }
+    pending[pendingCount++] = op << 16 | index;
+    pending[pendingCount++] = rgba(color);
+    if (!flushScheduled) {
+      flushScheduled = true;
+      host.getUI().ifPresent(ui -> ui.beforeClientResponse(host, context -> flush()));
+    }
+  }
+
+  private void flush() {
+    flushScheduled = false;
+    if (pendingCount == 0) {
+      return;
+    }
+    ByteBuffer batch = ByteBuffer.allocate(pendingCount * Integer.BYTES);
+    for (int i = 0; i < pendingCount; i++) {
+      batch.putInt(pending[i]);
+    }
+    pendingCount = 0;
+    host.getElement().executeJs("this.__sea && this.__sea.apply($0)", Base64.getEncoder().encodeToString(batch.array()));
+  }
+
+  private static int indexOf(int x, int y) {
+    return x * Sea.SIZE + y;
+  }
+
+  // "#rrggbb" oder "#rrggbbaa" als RGBA-int; es gibt nur eine Handvoll Farben, daher gecacht.
+  static int rgba(String color) {
+    return RGBA_CACHE.computeIfAbsent(color, hex -> {
+      String digits = hex.startsWith("#") ? hex.substring(1) : hex;
+      try {
+        long value = Long.parseLong(digits, 16);
+        return (int) (digits.length() == 8 ? value : value << 8 | 0xff);
+      } catch (NumberFormatException e) {
+        return 0x2f4f4fff;
+      }
+    });
+  }
+}
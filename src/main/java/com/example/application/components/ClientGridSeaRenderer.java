@@ -0,0 +1,226 @@
+package com.example.application.components;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.dom.Style;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the cell grid in the browser: one {@code executeJs} with the grid size, the
+ * palette and one palette index per cell creates 10,000 plain DOM cells, so there are no
+ * cell components on the server. The server keeps a byte per cell plus the cells with
+ * highlights or ships; later changes go out as one compact batch per round trip.
+ */
+class ClientGridSeaRenderer implements SeaRenderer {
+
+  private static final String INSTALL_JS = """
+      const grid = this;
+      const n = $0;
+      const palette = JSON.parse($1);
+      const initial = Uint8Array.from(atob($2), c => c.charCodeAt(0));
+      const cells = new Array(n * n);
+      const ships = new Map();
+      const fragment = document.createDocumentFragment();
+      // CSS-Grid füllt zeilenweise von oben: y absteigend, x aufsteigend
+      for (let y = n - 1; y >= 0; y--) {
+        for (let x = 0; x < n; x++) {
+          const cell = document.createElement('div');
+          cell.className = 'sea-cell';
+          cell.style.background = palette[initial[x * n + y]] || palette[0];
+          cells[x * n + y] = cell;
+          fragment.appendChild(cell);
+        }
+      }
+      grid.replaceChildren(fragment);
+      const highlight = (index, color) => {
+        cells[index].style.background = color;
+        cells[index].style.boxShadow = 'inset 0 0 0 2px ' + color + ', inset 0 0 8px ' + color;
+      };
+      grid.__grid = {
+        apply(batch) {
+          const bytes = Uint8Array.from(atob(batch), c => c.charCodeAt(0));
+          for (let o = 0; o + 3 <= bytes.length; o += 3) {
+            cells[(bytes[o] << 8) | bytes[o + 1]].style.background = palette[bytes[o + 2]];
+          }
+        },
+        highlight(list) {
+          for (const entry of list.split(';')) {
+            const [index, color] = entry.split('=');
+            highlight(+index, color);
+          }
+        },
+        ship(id, index, deg, name) {
+          let img = ships.get(id);
+          if (!img) {
+            img = document.createElement('img');
+            img.src = 'images/ship.png';
+            ships.set(id, img);
+          }
+          img.alt = name || '';
+          img.style.transform = 'rotate(' + deg + 'deg)';
+          cells[index].appendChild(img);
+        },
+        removeShip(id) {
+          const img = ships.get(id);
+          if (img) {
+            img.remove();
+            ships.delete(id);
+          }
+        }
+      };
+      """;
+
+  // Füllung stammt von einer Hervorhebung, nicht aus der Palette
+  private static final byte HIGHLIGHT_FILL = -1;
+
+  private final Div gridContainer = new Div();
+  // Palettenindex + 1 je Zelle, 0 = noch nicht gezeichnet (wie Sea)
+  private final byte[] cells = new byte[Sea.SIZE * Sea.SIZE];
+  // Nur Zellen mit Overlay: Hervorhebungen und Schiffe
+  private final Map<Integer, String> highlights = new LinkedHashMap<>();
+  private final Map<String, Object[]> ships = new LinkedHashMap<>();
+  // Änderungen seit dem letzten Roundtrip: je drei Bytes (Index, Palettenindex + 1)
+  private byte[] pending = new byte[3 * 256];
+  private int pendingLength;
+  private final StringBuilder pendingHighlights = new StringBuilder();
+  private boolean flushScheduled;
+
+  ClientGridSeaRenderer(int size) {
+    gridContainer.getStyle()
+        .setDisplay(Style.Display.GRID)
+        .set("grid-template-columns", "repeat(" + Sea.SIZE + ", 1fr)")
+        .set("gap", "0")
+        .setWidth(size + "px")
+        .setHeight(size + "px")
+        .setBackground(Sea.INITIAL_COLOR);
+    // Nach jedem (Re-)Attach ist der Browser-Zustand leer: Gitter einmal komplett aufbauen.
+    gridContainer.addAttachListener(event -> sendFullState());
+  }
+
+  @Override
+  public Component getComponent() {
+    return gridContainer;
+  }
+
+  @Override
+  public void createCells() {
+    Arrays.fill(cells, (byte) 0);
+  }
+
+  @Override
+  public void paintCell(int x, int y, int paletteIndex) {
+    int index = x * Sea.SIZE + y;
+    cells[index] = (byte) (paletteIndex + 1);
+    if (!gridContainer.isAttached()) {
+      return;
+    }
+    // Reihenfolge wahren: eine spätere Füllung überschreibt eine frühere Hervorhebung
+    if (!pendingHighlights.isEmpty()) {
+      flush();
+    }
+    appendPending(index);
+    scheduleFlush();
+  }
+
+  private void appendPending(int index) {
+    if (pendingLength + 3 > pending.length) {
+      pending = Arrays.copyOf(pending, pending.length * 2);
+    }
+    pending[pendingLength++] = (byte) (index >>> 8);
+    pending[pendingLength++] = (byte) index;
+    pending[pendingLength++] = cells[index];
+  }
+
+  @Override
+  public void highlightCell(int x, int y, String color) {
+    int index = x * Sea.SIZE + y;
+    highlights.put(index, color);
+    cells[index] = HIGHLIGHT_FILL;
+    if (!gridContainer.isAttached()) {
+      return;
+    }
+    if (pendingLength > 0) {
+      flush();
+    }
+    if (!pendingHighlights.isEmpty()) {
+      pendingHighlights.append(';');
+    }
+    pendingHighlights.append(index).append('=').append(color);
+    scheduleFlush();
+  }
+
+  @Override
+  public void placeShip(String shipId, String shipName, int x, int y, int rotationDegrees) {
+    int index = x * Sea.SIZE + y;
+    ships.put(shipId, new Object[]{index, rotationDegrees, shipName});
+    if (gridContainer.isAttached()) {
+      // Ausstehende Zellfarben zuerst, damit die Reihenfolge im Browser stimmt
+      flush();
+      gridContainer.getElement().executeJs("this.__grid && this.__grid.ship($0, $1, $2, $3)",
+          shipId, index, rotationDegrees, shipName);
+    }
+  }
+
+  @Override
+  public void removeShip(String shipId) {
+    if (ships.remove(shipId) != null && gridContainer.isAttached()) {
+      gridContainer.getElement().executeJs("this.__grid && this.__grid.removeShip($0)", shipId);
+    }
+  }
+
+  @Override
+  public void setSize(int pixels) {
+    gridContainer.getStyle()
+        .setWidth(pixels + "px")
+        .setHeight(pixels + "px");
+  }
+
+  private void sendFullState() {
+    pendingLength = 0;
+    pendingHighlights.setLength(0);
+    String palette = IntStream.rangeClosed(0, SeaPalette.size())
+        .mapToObj(i -> "\"" + (i == 0 ? Sea.INITIAL_COLOR : SeaPalette.color(i - 1)) + "\"")
+        .collect(Collectors.joining(",", "[", "]"));
+    gridContainer.getElement().executeJs(INSTALL_JS, Sea.SIZE, palette, Base64.getEncoder().encodeToString(cells));
+    if (!highlights.isEmpty()) {
+      String list = highlights.entrySet().stream()
+          .map(entry -> entry.getKey() + "=" + entry.getValue())
+          .collect(Collectors.joining(";"));
+      gridContainer.getElement().executeJs("this.__grid.highlight($0)", list);
+      // Seit der Hervorhebung neu gefüllte Zellen behalten nur die Umrandung
+      highlights.keySet().stream()
+          .filter(index -> cells[index] != HIGHLIGHT_FILL && cells[index] != 0)
+          .forEach(this::appendPending);
+      flush();
+    }
+    ships.forEach((shipId, ship) -> gridContainer.getElement()
+        .executeJs("this.__grid.ship($0, $1, $2, $3)", shipId, (Integer) ship[0], (Integer) ship[1], (String) ship[2]));
+  }
+
+  private void scheduleFlush() {
+    if (!flushScheduled) {
+      flushScheduled = true;
+      gridContainer.getUI().ifPresent(ui -> ui.beforeClientResponse(gridContainer, context -> flush()));
+    }
+  }
+
+  private void flush() {
+    flushScheduled = false;
+    if (pendingLength > 0) {
+      String batch = Base64.getEncoder().encodeToString(Arrays.copyOf(pending, pendingLength));
+      pendingLength = 0;
+      gridContainer.getElement().executeJs("this.__grid && this.__grid.apply($0)", batch);
+    }
+    if (!pendingHighlights.isEmpty()) {
+      String list = pendingHighlights.toString();
+      pendingHighlights.setLength(0);
+      gridContainer.getElement().executeJs("this.__grid && this.__grid.highlight($0)", list);
+    }
+  }
+}
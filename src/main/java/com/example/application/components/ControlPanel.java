@@ -1,8 +1,15 @@
 package com.example.application.components;
 
+import com.example.application.client.AdmissionController;
+import com.example.application.client.MapSnapshot;
+import com.example.application.client.RequestPriority;
+import com.example.application.diagnostics.AutoPilotStepEvent;
+import com.example.application.diagnostics.LiveShipSnapshotEvent;
+import com.example.application.diagnostics.UiActivityMonitor;
 import com.example.application.entity.*;
 import com.example.application.i18n.TranslationService;
 import com.example.application.service.ShipCommandService;
+import com.example.application.service.LiveSyncBroadcaster;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
@@ -18,15 +25,21 @@ import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.dom.Style;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.Registration;
 import com.vaadin.flow.spring.annotation.SpringComponent;
 import com.vaadin.flow.spring.annotation.UIScope;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.Context;
+
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 @SpringComponent
 @UIScope
@@ -35,6 +48,8 @@ public class ControlPanel extends Div {
   private final ShipCommandService shipService;
   private final TranslationService ts;
   private final Sea sea;
+  private final LiveSyncBroadcaster liveSyncBroadcaster;
+  private final UiActivityMonitor uiActivity;
 
   private final VerticalLayout shipList = new VerticalLayout();
   private ShipData selectedShipData;
@@ -62,26 +77,26 @@ public class ControlPanel extends Div {
   private final Map<String, Span> shipSpanMap = new HashMap<>();
 
   private volatile boolean autoPilotRunning = false;
-  private ExecutorService autoPilotExecutor;
-  // Zusätzlicher Sync-Thread: holt Positionen periodisch aus der DB,
+  private Disposable autoPilotLoop;
+  // Zusätzlicher Sync-Loop: holt Positionen periodisch aus der DB,
   // damit Bewegungen sichtbar sind, auch wenn ein AutoPilot-Request lange läuft.
-  private ExecutorService autoPilotLiveSyncExecutor;
+  private Registration autoPilotLiveSync;
+  private MapSnapshot liveMapSnapshot = MapSnapshot.EMPTY;
 
   @PostConstruct
   public void init() {
     setupShipList();
-    if (!allShipData.isEmpty()) {
-      selectedShipData = allShipData.getFirst();
-    }
     ts.addLanguageChangeListener(this::updateTexts);
 
     addDetachListener(e -> stopAutoPilot());
   }
 
   @Autowired
-  public ControlPanel(Sea sea, ShipCommandService shipService, Navigation navigation,
-                      TranslationService translationService) {
+  public ControlPanel(Sea sea, ShipCommandService shipService, LiveSyncBroadcaster liveSyncBroadcaster,
+                      Navigation navigation, TranslationService translationService, UiActivityMonitor uiActivity) {
     this.shipService = shipService;
+    this.liveSyncBroadcaster = liveSyncBroadcaster;
+    this.uiActivity = uiActivity;
     this.sea = sea;
     this.ts = translationService;
     this.navigation = navigation;
@@ -179,8 +194,8 @@ public class ControlPanel extends Div {
     unknownLegendLabel = new Span(ts.get("legend.unknown"));
 
     VerticalLayout legendItems = new VerticalLayout(
-        createLegendItem("#6694e4ff", waterLegendLabel),
-        createLegendItem("#4c6fab", deepWaterLegendLabel),
+        createLegendItem(SeaPalette.colorFor(Ground.Water, 0), waterLegendLabel),
+        createLegendItem(SeaPalette.colorFor(Ground.Water, SeaPalette.MAX_DEPTH), deepWaterLegendLabel),
         createLegendItem("#8B4513", landLegendLabel),
         createLegendItem("#483D8B", harbourLegendLabel),
         createLegendItem("#E0FFFF", iceLegendLabel),
@@ -235,42 +250,45 @@ public class ControlPanel extends Div {
     controlPanelTitle = new H3(ts.get("control.panel.title"));
     controlPanelTitle.getStyle().setTextAlign(Style.TextAlign.CENTER);
     //Navigation on Control Panel
-    navigation.setDirectionListener(selectedDirection -> {
-
-      Directions navigableDirection = Directions.fromShortName(selectedDirection);
-
+    navigation.setDirectionListener(this::navigate);
 
-      if (selectedShipData != null) {
-        Directions actualDirection = Directions.fromDelta(
-            selectedShipData.getDirectionX(), selectedShipData.getDirectionY());
-
-        Vec2D directionAfterNavigate = shipService.navigate(selectedShipData.getShipId(), actualDirection, navigableDirection);
-        if (directionAfterNavigate == null) {
-          Notification.show("Navigation failed (ship may have crashed)", 2500, Notification.Position.MIDDLE);
-          refreshShipListSimple();
-          return;
-        }
-        System.out.println("actualDirection:  " + actualDirection.toString());
-        System.out.println("navigableDirection: " + navigableDirection.toString());
-        sea.moveShip(selectedShipData, navigableDirection,Directions.fromDelta(directionAfterNavigate.getX(), directionAfterNavigate.getY()));
+    navigation.resetAllDirectionsToRed();
+    //Create funtional buttons
+    createFunctionsButtons(sea, shipService, navigation);
+  }
 
-        selectedShipData.setDirectionX(directionAfterNavigate.getX());
-        selectedShipData.setDirectionY(directionAfterNavigate.getY());
+  /**
+   * Steers the selected ship towards {@code directionShortName}. Emits the ship's new
+   * direction once the UI shows it; empty if no ship is selected or the ship crashed.
+   */
+  public Mono<Vec2D> navigate(String directionShortName) {
+    Directions navigableDirection = Directions.fromShortName(directionShortName);
+    if (selectedShipData == null) {
+      return Mono.empty();
+    }
+    ShipData ship = selectedShipData;
+    Directions actualDirection = Directions.fromDelta(
+        ship.getDirectionX(), ship.getDirectionY());
 
-        //shiff bewegt sich richtig
-        navigation.rotateShipOnSelect(Directions.fromDelta(directionAfterNavigate.getX(), directionAfterNavigate.getY()));
+    return subscribeInUi(shipService.navigateAsync(ship.getShipId(), actualDirection, navigableDirection), directionAfterNavigate -> {
+      if (directionAfterNavigate == null) {
+        Notification.show("Navigation failed (ship may have crashed)", 2500, Notification.Position.MIDDLE);
+        refreshShipListSimple();
+        return;
+      }
+      System.out.println("actualDirection:  " + actualDirection.toString());
+      System.out.println("navigableDirection: " + navigableDirection.toString());
+      sea.moveShip(ship, navigableDirection,Directions.fromDelta(directionAfterNavigate.getX(), directionAfterNavigate.getY()));
 
-        List<Vec2D> unavailableDirections = shipService.getUnavailableDirections(selectedShipData);
+      ship.setDirectionX(directionAfterNavigate.getX());
+      ship.setDirectionY(directionAfterNavigate.getY());
 
+      //shiff bewegt sich richtig
+      navigation.rotateShipOnSelect(Directions.fromDelta(directionAfterNavigate.getX(), directionAfterNavigate.getY()));
 
-        navigation.setAllowedDirections(unavailableDirections);
-        refreshShipListSimple();
-      }
+      subscribeInUi(shipService.getUnavailableDirectionsAsync(ship), navigation::setAllowedDirections);
+      refreshShipListSimple();
     });
-
-    navigation.resetAllDirectionsToRed();
-    //Create funtional buttons
-    createFunctionsButtons(sea, shipService, navigation);
   }
 
   private void createFunctionsButtons(Sea sea, ShipCommandService shipService, Navigation navigation) {
@@ -287,81 +305,89 @@ public class ControlPanel extends Div {
   }
 
   private void createRadarButton(ShipCommandService shipService, Navigation navigation) {
-    radarBtn = new Button(ts.get("button.radar"), e -> {
-      if (selectedShipData == null) {
-        Notification.show("Kein Schiff ausgewählt", 2000, Notification.Position.MIDDLE);
+    radarBtn = new Button(ts.get("button.radar"), e -> radar());
+  }
+
+  /** Radar for the selected ship: marks blocked directions and highlights the echoes. */
+  public Mono<EchoData> radar() {
+    if (selectedShipData == null) {
+      Notification.show("Kein Schiff ausgewählt", 2000, Notification.Position.MIDDLE);
+      return Mono.empty();
+    }
+    // Ein Radar-Request liefert sowohl die gesperrten Richtungen als auch die Echos.
+    ShipData ship = selectedShipData;
+    return subscribeInUi(shipService.radarAsync(ship.getShipId()), echoData -> {
+      if (echoData == null) {
         return;
       }
-      navigation.setAllowedDirections(shipService.getUnavailableDirections(selectedShipData));
-
-      List<Echo> echoes = shipService.getSectorInfo(selectedShipData.getShipId());
-
-      for (Echo echo : echoes) {
-        Sector sector = echo.getSector();
-        if (sector == null) continue;
-
-        int x = sector.getVec2()[0];
-        int y = sector.getVec2()[1];
-
-        if (x < 0 || x >= 99 || y < 0 || y >= 99) continue;
-
-        Div cell = sea.getCell(x, y);
-        if (cell == null) continue;
-        if (echo.getGround().equals(Ground.Land)){
-          cell.getStyle()
-              .setBorder("2px solid #46c946")
-              .setBackground("#46c946")
-              .set("box-shadow", "inset 0 0 8px #46c946");
-        }else {
-          cell.getStyle()
-              .setBorder("1px solid #6694e4ff")
-              .setBackground("#6694e4ff")
-              .set("box-shadow", "inset 0 0 8px #6694e4ff");
-        }
-      }
+      navigation.setAllowedDirections(shipService.getUnavailableDirections(ship, echoData));
+      highlightRadarEchoes(echoData.getEchos());
     });
   }
 
+  private void highlightRadarEchoes(List<Echo> echoes) {
+    if (echoes == null) {
+      return;
+    }
+    for (Echo echo : echoes) {
+      Sector sector = echo.getSector();
+      if (sector == null) continue;
+
+      int x = sector.getVec2()[0];
+      int y = sector.getVec2()[1];
+
+      if (x < 0 || x >= 99 || y < 0 || y >= 99) continue;
+
+      sea.highlightCell(x, y, echo.getGround().equals(Ground.Land) ? "#46c946" : "#6694e4ff");
+    }
+  }
+
   private void createScanButton() {
     scanBtn = new Button(ts.get("button.scan"),e ->{
       if (selectedShipData == null) {
         Notification.show("Kein Schiff ausgewählt", 2000, Notification.Position.MIDDLE);
         return;
       }
+      ShipData ship = selectedShipData;
+      subscribeInUi(shipService.scanAsync(ship.getShipId()), scanResult -> openScanDialog(ship, scanResult));
+    });
+  }
 
-      Dialog dialog = new Dialog();
-      dialog.setHeaderTitle("Sector-Info");
-      dialog.setCloseOnEsc(true);
-      dialog.setCloseOnOutsideClick(true);
-      dialog.setWidth("340px");
+  private void openScanDialog(ShipData ship, ScanResult scanResult) {
+    if (scanResult == null) {
+      return;
+    }
 
-      VerticalLayout layout = new VerticalLayout();
-      layout.setPadding(true);
-      layout.setSpacing(true);
-      ScanResult scanResult = shipService.scan(selectedShipData.getShipId());
+    Dialog dialog = new Dialog();
+    dialog.setHeaderTitle("Sector-Info");
+    dialog.setCloseOnEsc(true);
+    dialog.setCloseOnOutsideClick(true);
+    dialog.setWidth("340px");
 
-      // Einzelne Felder (Label + Wert)
-      layout.add(createField("Shiff : ", selectedShipData.getShipName()));
-      layout.add(createField("Sector",
-          "(" + selectedShipData.getSectorX() + ", " + selectedShipData.getSectorY() + ")"));
-      layout.add(createField("Tiefe", String.valueOf(scanResult.getDepth())));
-      layout.add(createField("Ábweichung", String.valueOf(scanResult.getStddev())));
+    VerticalLayout layout = new VerticalLayout();
+    layout.setPadding(true);
+    layout.setSpacing(true);
 
-      // Close-Button
-      Button closeBtn = new Button("Schließen", ev -> dialog.close());
-      closeBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
-      closeBtn.getStyle().setMarginTop("16px");
+    // Einzelne Felder (Label + Wert)
+    layout.add(createField("Shiff : ", ship.getShipName()));
+    layout.add(createField("Sector",
+        "(" + ship.getSectorX() + ", " + ship.getSectorY() + ")"));
+    layout.add(createField("Tiefe", String.valueOf(scanResult.getDepth())));
+    layout.add(createField("Ábweichung", String.valueOf(scanResult.getStddev())));
 
-      // route button ist weg und muss hinzugufugt
-      // ich muss auch den logic wecksln
-      //
+    // Close-Button
+    Button closeBtn = new Button("Schließen", ev -> dialog.close());
+    closeBtn.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+    closeBtn.getStyle().setMarginTop("16px");
 
-      layout.add(closeBtn);
+    // route button ist weg und muss hinzugufugt
+    // ich muss auch den logic wecksln
+    //
 
-      dialog.add(layout);
-      dialog.open();
+    layout.add(closeBtn);
 
-    });
+    dialog.add(layout);
+    dialog.open();
   }
 
   private void createRouteButton() {
@@ -376,44 +402,25 @@ public class ControlPanel extends Div {
 
 
       // 2. Ab hier ist selectedShipData garantiert nicht null
-      List<ShipSector> shipRoute = shipService.getShipRoute(
-          selectedShipData.getShipId()
-      );
-
-      // Erste Hervorhebung (grün) – sofort
-      shipRoute.forEach(ship -> {
-        Div cell = sea.getCell(ship.getShipSectorX(), ship.getShipSectorY());
-        if (cell != null) {  // kleine Absicherung
-          // Kein CSS-Border verwenden: Border kann Grid-Zellen visuell "verschieben".
-          cell.getStyle()
-              .setBackground("#4ad8f5")
-              .set("box-shadow", "inset 0 0 0 2px #4ad8f5, inset 0 0 8px #4ad8f5");
-        }
-      });
+      subscribeInUi(shipService.getShipRouteAsync(selectedShipData.getShipId()), this::highlightShipRoute);
+    });
+  }
 
-      // 3 Sekunden Pause + zweite Hervorhebung (blau)
-      UI ui = UI.getCurrent();
-      if (ui == null) return;
+  private void highlightShipRoute(List<ShipSector> shipRoute) {
+    if (shipRoute == null) {
+      return;
+    }
 
-      CompletableFuture.runAsync(() -> {
-        try {
-          Thread.sleep(1000);
-        } catch (InterruptedException e) {
-          Thread.currentThread().interrupt();
-        }
+    // Erste Hervorhebung (grün) – sofort
+    shipRoute.forEach(ship -> sea.highlightCell(ship.getShipSectorX(), ship.getShipSectorY(), "#4ad8f5"));
 
-        ui.access(() -> {
-          shipRoute.forEach(ship -> {
-            Div cell = sea.getCell(ship.getShipSectorX(), ship.getShipSectorY());
-            if (cell != null) {
-              cell.getStyle()
-                  .setBackground("#6694e4ff")
-                  .set("box-shadow", "inset 0 0 0 2px #6694e4ff, inset 0 0 8px #6694e4ff");
-            }
-          });
-        });
-      });
-    });
+    // 3 Sekunden Pause + zweite Hervorhebung (blau)
+    UI ui = UI.getCurrent();
+    if (ui == null) return;
+
+    Mono.delay(Duration.ofSeconds(1)).subscribe(tick -> uiActivity.access(ui, () -> {
+      shipRoute.forEach(ship -> sea.highlightCell(ship.getShipSectorX(), ship.getShipSectorY(), "#6694e4ff"));
+    }));
   }
 
   private HorizontalLayout createField(String labelText, String value) {
@@ -438,24 +445,27 @@ public class ControlPanel extends Div {
   }
 
   private void createExitButton(Sea sea, ShipCommandService shipService, Navigation navigation) {
-    exitBtn = new Button(ts.get("button.exit"), e -> {
-      if (selectedShipData == null) {
-        return;
-      }
+    exitBtn = new Button(ts.get("button.exit"), e -> exitShip());
+  }
 
-      ShipData shipToRemove = selectedShipData;
+  /** Takes the selected ship out of the game; completes once it is removed from the map. */
+  public Mono<Void> exitShip() {
+    if (selectedShipData == null) {
+      return Mono.empty();
+    }
 
-      if (autoPilotRunning) {
-        stopAutoPilot();
-      }
+    ShipData shipToRemove = selectedShipData;
 
-      shipService.exit(shipToRemove.getShipId());
+    if (autoPilotRunning) {
+      stopAutoPilot();
+    }
+
+    return subscribeInUi(shipService.exitAsync(shipToRemove.getShipId()), ignored -> {
       sea.removeShipFromSea(shipToRemove);
 
       // Re-sync UI list from backend; removed ship must not be re-added locally.
       refreshShipListSimple();
       navigation.resetAllDirectionsToRed();
-
     });
   }
 
@@ -470,7 +480,24 @@ public class ControlPanel extends Div {
     styleAutoPilotButton(false);
   }
 
-  private void startAutoPilot() {
+  public ShipData getSelectedShip() {
+    return selectedShipData;
+  }
+
+  public boolean isAutoPilotRunning() {
+    return autoPilotRunning;
+  }
+
+  /** Autopilot speed as in the speed select: Slow, Normal or Fast. */
+  public void setAutoPilotSpeed(String speed) {
+    speedSelect.setValue(speed);
+  }
+
+  public Duration getAutoPilotDelay() {
+    return Duration.ofMillis(getDelayFromSpeed());
+  }
+
+  public void startAutoPilot() {
     if (selectedShipData == null) {
       Notification.show("No ship selected", 2000, Notification.Position.MIDDLE);
       return;
@@ -482,6 +509,7 @@ public class ControlPanel extends Div {
     }
 
     autoPilotRunning = true;
+    uiActivity.autoPilotStarted();
     styleAutoPilotButton(true);
     setControlsEnabled(false);
 
@@ -492,68 +520,58 @@ public class ControlPanel extends Div {
 
     startAutoPilotLiveSync(ui, autoPilotShipId);
 
-    autoPilotExecutor = Executors.newSingleThreadExecutor();
-    autoPilotExecutor.submit(() -> {
-      try {
-        while (autoPilotRunning) {
-          AutoPilotData data = shipService.runAutoPilotStep(autoPilotShipId);
-
-          ui.access(() -> {
-            ShipData currentShip = findShipById(autoPilotShipId);
-            if (currentShip != null && data != null) {
-              sea.applyAutoPilotStep(currentShip, data);
-              Span span = shipSpanMap.get(autoPilotShipId);
-              if (span != null) {
-                span.setText(buildShipInfoText(currentShip));
-              }
-            }
+    // Kein eigener Thread pro AutoPilot: Request, Pause und Wiederholung laufen reaktiv.
+    autoPilotLoop = Mono.defer(() -> {
+          AutoPilotStepEvent event = new AutoPilotStepEvent();
+          event.setShipId(autoPilotShipId);
+          event.begin();
+          long requestStart = System.nanoTime();
+          return shipService.runAutoPilotStepAsync(autoPilotShipId)
+              .doOnNext(data -> {
+                long queued = System.nanoTime();
+                event.setRequestTime(queued - requestStart);
+                uiActivity.autoPilotStep();
+                uiActivity.access(ui, () -> {
+                  event.setQueueTime(System.nanoTime() - queued);
+                  ShipData currentShip = findShipById(autoPilotShipId);
+                  if (currentShip != null) {
+                    sea.applyAutoPilotStep(currentShip, data);
+                    event.setSectorsApplied(data.getSectorDataList() != null ? data.getSectorDataList().size() : 0);
+                    Span span = shipSpanMap.get(autoPilotShipId);
+                    if (span != null) {
+                      span.setText(buildShipInfoText(currentShip));
+                    }
+                  }
+                  event.commit();
+                });
+              });
+        })
+        .then(Mono.defer(() -> Mono.delay(Duration.ofMillis(getDelayFromSpeed()))))
+        .repeat(() -> autoPilotRunning)
+        .contextWrite(admissionContext(ui, RequestPriority.AUTOPILOT))
+        .subscribe(null, ex -> {
+          if (!autoPilotRunning) {
+            return;
+          }
+          uiActivity.access(ui, () -> {
+            Notification.show(ts.get("autopilot.error") + ": " + ex.getMessage(),
+                3000, Notification.Position.MIDDLE);
+            stopAutoPilot();
           });
-
-          Thread.sleep(getDelayFromSpeed());
-        }
-      } catch (InterruptedException ignored) {
-        Thread.currentThread().interrupt();
-      } catch (Exception ex) {
-        if (!autoPilotRunning || isInterruption(ex)) {
-          return;
-        }
-        ui.access(() -> {
-          Notification.show(ts.get("autopilot.error") + ": " + ex.getMessage(),
-              3000, Notification.Position.MIDDLE);
-          stopAutoPilot();
         });
-      }
-    });
 
     Notification.show(ts.get("autopilot.started"), 2000, Notification.Position.BOTTOM_START);
   }
 
   private void startAutoPilotLiveSync(UI ui, String shipId) {
-    autoPilotLiveSyncExecutor = Executors.newSingleThreadExecutor();
-    autoPilotLiveSyncExecutor.submit(() -> {
-      try {
-        while (autoPilotRunning) {
-          // Position + Kartenfarben gemeinsam aktualisieren, damit Wasser-Felder nicht hinterherhinken.
-          List<ShipData> latestShips = shipService.getShips();
-          List<SectorInfo> latestMap = shipService.loadMap();
-          ui.access(() -> {
-            sea.applyMapSectors(latestMap);
-            applyLiveShipSnapshot(shipId, latestShips);
-          });
-          Thread.sleep(200);
-        }
-      } catch (InterruptedException ignored) {
-        Thread.currentThread().interrupt();
-      } catch (Exception ex) {
-        if (!autoPilotRunning || isInterruption(ex)) {
-          return;
-        }
-        ui.access(() -> {
-          Notification.show("Autopilot sync error: " + ex.getMessage(),
-              2500, Notification.Position.BOTTOM_START);
-          stopAutoPilot();
-        });
-      }
+    // Position + Kartenfarben gemeinsam aktualisieren, damit Wasser-Felder nicht hinterherhinken.
+    // Angewendet werden nur die Sektoren, die sich seit dem letzten Tick dieser Session geändert haben.
+    // Ein gemeinsamer Poller für alle Sessions liefert die Snapshots.
+    autoPilotLiveSync = liveSyncBroadcaster.subscribe(ui, snapshot -> {
+      List<SectorInfo> changedSectors = snapshot.getMap().changesSince(liveMapSnapshot);
+      liveMapSnapshot = snapshot.getMap();
+      sea.applyMapSectors(changedSectors);
+      applyLiveShipSnapshot(shipId, snapshot.getShips());
     });
   }
 
@@ -561,6 +579,19 @@ public class ControlPanel extends Div {
     if (!autoPilotRunning || latestShips == null) {
       return;
     }
+    LiveShipSnapshotEvent event = new LiveShipSnapshotEvent();
+    event.setShipId(shipId);
+    event.setShips(latestShips.size());
+    event.begin();
+    try {
+      applyLiveShip(shipId, latestShips);
+      event.setShipFound(autoPilotRunning);
+    } finally {
+      event.commit();
+    }
+  }
+
+  private void applyLiveShip(String shipId, List<ShipData> latestShips) {
     allShipData = latestShips;
 
     ShipData latest = null;
@@ -609,28 +640,61 @@ public class ControlPanel extends Div {
     return null;
   }
 
-  private boolean isInterruption(Throwable throwable) {
-    Throwable current = throwable;
-    while (current != null) {
-      if (current instanceof InterruptedException) {
-        return true;
-      }
-      current = current.getCause();
+  // Führt einen Request aus, ohne einen Thread zu blockieren, und übergibt das Ergebnis
+  // (oder null bei leerer Antwort) im UI-Kontext. Das zurückgegebene Mono endet, sobald das
+  // Ergebnis angewendet ist; Klick-Handler ignorieren es, der Lastgenerator wartet darauf.
+  private <T> Mono<T> subscribeInUi(Mono<T> request, Consumer<T> onResult) {
+    UI ui = UI.getCurrent();
+    if (ui == null) return Mono.empty();
+    Sinks.One<T> applied = Sinks.one();
+    request.map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .contextWrite(admissionContext(ui, RequestPriority.INTERACTIVE))
+        .subscribe(
+            result -> uiActivity.access(ui, () -> {
+              try {
+                onResult.accept(result.orElse(null));
+              } catch (RuntimeException ex) {
+                applied.tryEmitError(ex);
+                throw ex;
+              }
+              if (result.isPresent()) {
+                applied.tryEmitValue(result.get());
+              } else {
+                applied.tryEmitEmpty();
+              }
+            }),
+            ex -> uiActivity.access(ui, () -> {
+              Notification.show(ts.get("error.unknown") + ": " + ex.getMessage(), 3000, Notification.Position.MIDDLE);
+              applied.tryEmitError(ex);
+            }));
+    return applied.asMono();
+  }
+
+  // Alle Tabs einer Vaadin-Session teilen sich ein Kontingent beim Ship-Server.
+  private static Context admissionContext(UI ui, RequestPriority priority) {
+    Context context = AdmissionController.withPriority(priority);
+    VaadinSession session = ui.getSession();
+    if (session == null) {
+      return context;
     }
-    return false;
+    // Ohne HTTP-Session (simulierte Sessions des Lastgenerators) kennzeichnet die Push-Id die Session.
+    String sessionId = session.getSession() != null ? session.getSession().getId() : session.getPushId();
+    return context.putAll(AdmissionController.withSession(sessionId).readOnly());
   }
 
-  private void stopAutoPilot() {
+  public void stopAutoPilot() {
     if (!autoPilotRunning) return;
 
     autoPilotRunning = false;
-    if (autoPilotExecutor != null) {
-      autoPilotExecutor.shutdownNow();
-      autoPilotExecutor = null;
+    uiActivity.autoPilotStopped();
+    if (autoPilotLoop != null) {
+      autoPilotLoop.dispose();
+      autoPilotLoop = null;
     }
-    if (autoPilotLiveSyncExecutor != null) {
-      autoPilotLiveSyncExecutor.shutdownNow();
-      autoPilotLiveSyncExecutor = null;
+    if (autoPilotLiveSync != null) {
+      autoPilotLiveSync.remove();
+      autoPilotLiveSync = null;
     }
     styleAutoPilotButton(false);
     setControlsEnabled(true);
@@ -720,13 +784,20 @@ public class ControlPanel extends Div {
         + Directions.nameFromDirection(Directions.fromDelta(shipData.getDirectionX(), shipData.getDirectionY()));
   }
 
-  private void addShip(String name, int x, int y, String directionShortName) {
+  /**
+   * Launches a ship like the "add ship" dialog; emits the server's answer (the ship id,
+   * or the error text if the launch was rejected) once the UI shows it.
+   */
+  public Mono<String> launchShip(String name, int x, int y, String directionShortName) {
     Directions direction = Directions.fromShortName(directionShortName);
     ShipData shipData = new ShipData(null, name, x, y, direction.getDx(), direction.getDy());
-    String response = shipService.launch(
+    return subscribeInUi(shipService.launchAsync(
         shipData.getShipName(), shipData.getSectorX(), shipData.getSectorY(),
-        shipData.getDirectionX(), shipData.getDirectionY());
+        shipData.getDirectionX(), shipData.getDirectionY()),
+        response -> onShipLaunched(shipData, response));
+  }
 
+  private void onShipLaunched(ShipData shipData, String response) {
 
     if (response == null || !response.contains("#")) {
       System.out.println(response);
@@ -735,7 +806,7 @@ public class ControlPanel extends Div {
       return;
     }
     shipData.setShipId(response);
-    Notification.show(ts.get("ship.launched", name), 2000, Notification.Position.BOTTOM_START);
+    Notification.show(ts.get("ship.launched", shipData.getShipName()), 2000, Notification.Position.BOTTOM_START);
     sea.placeShipOnSea(shipData);
     selectedShipData = shipData;
     refreshShipListSimple();
@@ -835,7 +906,7 @@ public class ControlPanel extends Div {
         int x = Integer.parseInt(xField.getValue().replace(",", "."));
         int y = Integer.parseInt(yField.getValue().replace(",", "."));
 
-        addShip(name, x, y, directionSelect.getValue());
+        launchShip(name, x, y, directionSelect.getValue());
         dialog.close();
       } catch (NumberFormatException ex) {
         xField.setInvalid(true);
@@ -871,22 +942,32 @@ public class ControlPanel extends Div {
         .setBackground("#ffffff")
         .setMinHeight("0");
 
-    allShipData = shipService.getShips();
+    subscribeInUi(shipService.getShipsAsync(), ships -> {
+      allShipData = ships;
 
-    for (ShipData shipData : allShipData) {
-      addShipToControlPanel(shipData);
-      sea.placeShipOnSea(shipData);
-    }
+      for (ShipData shipData : allShipData) {
+        addShipToControlPanel(shipData);
+        sea.placeShipOnSea(shipData);
+      }
+      if (selectedShipData == null && !allShipData.isEmpty()) {
+        selectedShipData = allShipData.getFirst();
+      }
+    });
   }
 
   // 1. Neue Methode (oder ersetze die alte refresh-Methode)
   private void refreshShipListSimple() {
+    subscribeInUi(shipService.getShipsAsync(), this::rebuildShipList);   // aktuelle Daten holen
+  }
+
+  // Paketsichtbar für die JMH-Benchmarks (src/jmh/java).
+  void rebuildShipList(List<ShipData> ships) {
     String selectedShipId = selectedShipData != null ? selectedShipData.getShipId() : null;
 
     shipList.removeAll();           // alles weg
     shipSpanMap.clear();            // Map leeren, sonst Speicher-Leak + alte Objekte
 
-    allShipData = shipService.getShips();   // aktuelle Daten holen
+    allShipData = ships;
 
     selectedShipData = null;
     for (ShipData ship : allShipData) {
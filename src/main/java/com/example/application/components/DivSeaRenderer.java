@@ -0,0 +1,120 @@
+package com.example.application.components;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Image;
+import com.vaadin.flow.dom.Style;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One {@link Div} per sector in a CSS grid. Every cell is a server-side component, which
+ * makes it easy to style but costs about 10,000 components per tab.
+ */
+class DivSeaRenderer implements SeaRenderer {
+
+  final Div[][] cells = new Div[Sea.SIZE][Sea.SIZE];
+  private final Map<String, Div> shipCells = new HashMap<>();
+  private final Div gridContainer = new Div();
+
+  DivSeaRenderer(int size) {
+    // Inner grid container: zoomable
+    gridContainer.getStyle()
+        .setDisplay(Style.Display.GRID)
+        .set("grid-template-columns", "repeat(" + Sea.SIZE + ", 1fr)")
+        .set("gap", "0")
+        .setWidth(size + "px")
+        .setHeight(size + "px")
+        .setBackground("transparent");
+  }
+
+  @Override
+  public Component getComponent() {
+    return gridContainer;
+  }
+
+  @Override
+  public void createCells() {
+    for (int y = 0; y < Sea.SIZE; y++) {
+      for (int x = 0; x < Sea.SIZE; x++) {
+        Div cell = createBaseCell();
+        cell.getStyle()
+            .set("grid-column", String.valueOf(x + 1))
+            .set("grid-row",    String.valueOf(Sea.SIZE - y));
+        cells[x][y] = cell;
+        gridContainer.add(cell);
+      }
+    }
+  }
+
+  Div getCell(int x, int y) {
+    return cells[x][y];
+  }
+
+  @Override
+  public void paintCell(int x, int y, int paletteIndex) {
+    cells[x][y].getStyle().setBackground(SeaPalette.color(paletteIndex));
+  }
+
+  @Override
+  public void highlightCell(int x, int y, String color) {
+    // Kein CSS-Border verwenden: Border kann Grid-Zellen visuell "verschieben".
+    cells[x][y].getStyle()
+        .setBackground(color)
+        .set("box-shadow", "inset 0 0 0 2px " + color + ", inset 0 0 8px " + color);
+  }
+
+  @Override
+  public void placeShip(String shipId, String shipName, int x, int y, int rotationDegrees) {
+    removeShip(shipId);
+
+    Image img = new Image("images/ship.png", shipName);
+    img.setWidth("100%");
+    img.setHeight("100%");
+    img.getStyle()
+        .set("object-fit", "contain")
+        .set("transform", "rotate(" + rotationDegrees + "deg)");
+
+    Div cell = cells[x][y];
+    cell.add(img);
+    shipCells.put(shipId, cell);
+  }
+
+  @Override
+  public void removeShip(String shipId) {
+    Div cell = shipCells.remove(shipId);
+    if (cell != null) {
+      cell.getChildren()
+          .filter(component -> component instanceof Image)
+          .findFirst()
+          .ifPresent(cell::remove);
+    }
+  }
+
+  @Override
+  public void setSize(int pixels) {
+    gridContainer.getStyle()
+        .setWidth(pixels + "px")
+        .setHeight(pixels + "px");
+  }
+
+  private Div createBaseCell() {
+    Div cell = new Div();
+    cell.getStyle()
+        // Border/Highlight soll die Zellgröße nicht verändern (verhindert "Zoom"-Effekt).
+        .set("box-sizing", "border-box")
+        .setWidth("100%")
+        .setHeight("100%")
+        .setBackground(Sea.INITIAL_COLOR)
+        .setPosition(Style.Position.RELATIVE)
+        .setOverflow(Style.Overflow.HIDDEN)
+        .setDisplay(Style.Display.FLEX)
+        .setAlignItems(Style.AlignItems.CENTER)
+        .setJustifyContent(Style.JustifyContent.CENTER)
+        .setFontSize("16px")
+        .setColor("white");
+
+    return cell;
+  }
+}
@@ -1,40 +1,71 @@
 package com.example.application.components;
 
+import com.example.application.diagnostics.MapApplyEvent;
+import com.example.application.diagnostics.UiActivityMonitor;
 import com.example.application.entity.*;
 import com.example.application.service.ShipCommandService;
+import com.example.application.service.WorldMapCache;
 import com.vaadin.flow.component.ClientCallable;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.html.Div;
-import com.vaadin.flow.component.html.Image;
 import com.vaadin.flow.dom.Style;
 import com.vaadin.flow.spring.annotation.SpringComponent;
 import com.vaadin.flow.spring.annotation.UIScope;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Locale;
 import java.util.function.Consumer;
 
+/**
+ * The 100x100 sector map with ships. Drawing is delegated to a {@link SeaRenderer}:
+ * one Div component per cell ({@code ocean.sea.renderer=div}, default), a grid of plain
+ * DOM cells built in the browser ({@code client}) or a single client-side canvas
+ * ({@code canvas}). Map updates are only painted for cells in the viewport the
+ * client reports (plus a margin); the rest follows when it is scrolled into view.
+ */
 @SpringComponent
 @UIScope
 public class Sea extends Div {
 
+  static final int SIZE = 100;
   // Unknown/not-yet-loaded sectors use a neutral color (not water-like blue).
-  private static final String INITIAL_COLOR = "#4b5563";
+  static final String INITIAL_COLOR = "#4b5563";
   private static final double[] ZOOM_LEVELS = {1, 2, 3, 5, 8};
   private static final int BASE_SIZE = 720;
+  // Zellen rund um den sichtbaren Ausschnitt, die trotzdem aktuell gehalten werden
+  private static final int VIEWPORT_MARGIN = 5;
+  // Zelle trägt eine Hervorhebung und wird erst durch ein echtes Karten-Update neu gezeichnet
+  private static final byte HIGHLIGHTED = -1;
 
+  private final WorldMapCache worldMapCache;
   private final ShipCommandService shipService;
-  public final Div[][] cells = new Div[100][100];
-  private final Map<String, Div> shipCells = new HashMap<>();
-  private final Div gridContainer = new Div();
+  private final UiActivityMonitor uiActivity;
+  private final SeaRenderer renderer;
+  // Zuletzt gezeichneter und gewünschter Palettenindex + 1 je Zelle (Index x * SIZE + y)
+  private final byte[] renderedState = new byte[SIZE * SIZE];
+  private final byte[] targetState = new byte[SIZE * SIZE];
+  // Sichtbarer Ausschnitt inkl. Rand, vom Client gemeldet; anfangs die ganze Karte.
+  private int viewMinX = 0;
+  private int viewMaxX = SIZE - 1;
+  private int viewMinY = 0;
+  private int viewMaxY = SIZE - 1;
 
   private int currentZoomIndex = 0;
   // Do not serialize runtime UI callback across restarts/hot-reload.
   private transient Consumer<Double> wheelZoomListener;
 
-  public Sea(ShipCommandService shipService) {
+  public Sea(WorldMapCache worldMapCache, ShipCommandService shipService, UiActivityMonitor uiActivity,
+             @Value("${ocean.sea.renderer:div}") String renderer) {
+    this.worldMapCache = worldMapCache;
     this.shipService = shipService;
+    this.uiActivity = uiActivity;
+    this.renderer = switch (renderer.toLowerCase(Locale.ROOT)) {
+      case "canvas" -> new CanvasSeaRenderer(BASE_SIZE);
+      case "client" -> new ClientGridSeaRenderer(BASE_SIZE);
+      default -> new DivSeaRenderer(BASE_SIZE);
+    };
     setSeaContainerLayout();
   }
 
@@ -43,82 +74,114 @@ public class Sea extends Div {
     createGrid();
     loadMap();
     attachWheelZoomJs();
+    attachViewportJs();
   }
 
-  private void createGrid() {
-    for (int y = 0; y < 100; y++) {
-      for (int x = 0; x < 100; x++) {
-        Div cell = createBaseCell();
-        cell.getStyle()
-            .set("grid-column", String.valueOf(x + 1))
-            .set("grid-row",    String.valueOf(100 - y));
-        cells[x][y] = cell;
-        gridContainer.add(cell);
-      }
-    }
+  // Paketsichtbar für die JMH-Benchmarks (src/jmh/java).
+  void createGrid() {
+    renderer.createCells();
   }
 
   private void loadMap() {
-    List<SectorInfo> sectors = shipService.loadMap();
-    applyMapSectors(sectors);
+    // Karte kommt aus dem gemeinsamen Cache; neue Tabs laden nichts vom Server.
+    if (worldMapCache.isLoaded()) {
+      applyMapSectors(worldMapCache.getSnapshot().getSectors());
+      return;
+    }
+    UI ui = UI.getCurrent();
+    if (ui == null) {
+      return;
+    }
+    // Cache noch leer: gemeinsamen Kartenstream blockweise zeichnen; schlägt er fehl,
+    // auf das erste erfolgreiche Laden des Caches warten.
+    worldMapCache.streamInitialMap()
+        .subscribe(chunk -> uiActivity.access(ui, () -> applyMapSectors(chunk)),
+            ex -> worldMapCache.awaitSnapshot()
+                .subscribe(snapshot -> uiActivity.access(ui, () -> applyMapSectors(snapshot.getSectors()))));
   }
 
   public void applyMapSectors(List<SectorInfo> sectors) {
     if (sectors == null || sectors.isEmpty()) {
       return;
     }
+    MapApplyEvent event = new MapApplyEvent();
+    event.begin();
+    int touched = 0;
+    int changed = 0;
+    int deferred = 0;
     for (SectorInfo sector : sectors) {
       int x = sector.getSectorX();
       int y = sector.getSectorY();
 
-      if (x < 0 || x >= 100 || y < 0 || y >= 100) {
+      if (x < 0 || x >= SIZE || y < 0 || y >= SIZE) {
         continue;
       }
-      Div cell = cells[x][y];
-      applySectorToCell(cell, sector);
+      touched++;
+      if (applySectorToCell(x, y, sector)) {
+        changed++;
+      } else if (!isInView(x, y) && renderedState[x * SIZE + y] != targetState[x * SIZE + y]) {
+        deferred++;
+      }
     }
+    event.setCellsTouched(touched);
+    event.setCellsChanged(changed);
+    event.setCellsDeferred(deferred);
+    event.commit();
   }
 
-  public void applySectorToCell(Div cell,SectorInfo sector) {
-    String bgColor = getGroundColor(sector.getGround());
-    if (sector.getGround() == Ground.Water && sector.getDepth() > 200) {
-      bgColor = darkenColor(bgColor, 0.25);
+  /**
+   * Paints the sector unless the cell already shows it or lies outside the reported
+   * viewport (it is painted once scrolled into view); true if the cell was repainted.
+   */
+  public boolean applySectorToCell(int x, int y, SectorInfo sector) {
+    int index = x * SIZE + y;
+    // 0 heißt "noch nie gezeichnet", daher um eins verschoben
+    targetState[index] = (byte) (SeaPalette.indexOf(sector.getGround(), sector.getDepth()) + 1);
+    if (renderedState[index] == targetState[index] || !isInView(x, y)) {
+      return false;
     }
-    cell.getStyle().setBackground(bgColor);
+    paint(x, y, index);
+    return true;
   }
 
-  private String darkenColor(String hexColor, double factor) {
-    if (hexColor == null || !hexColor.startsWith("#")) {
-      return hexColor;
-    }
-
-    try {
-      hexColor = hexColor.replace("#", "");
-      int r = Integer.parseInt(hexColor.substring(0, 2), 16);
-      int g = Integer.parseInt(hexColor.substring(2, 4), 16);
-      int b = Integer.parseInt(hexColor.substring(4, 6), 16);
+  private void paint(int x, int y, int index) {
+    renderedState[index] = targetState[index];
+    renderer.paintCell(x, y, targetState[index] - 1);
+  }
 
-      r = (int) Math.max(0, r * (1 - factor));
-      g = (int) Math.max(0, g * (1 - factor));
-      b = (int) Math.max(0, b * (1 - factor));
+  private boolean isInView(int x, int y) {
+    return x >= viewMinX && x <= viewMaxX && y >= viewMinY && y <= viewMaxY;
+  }
 
-      return String.format("#%02x%02x%02x", r, g, b);
-    } catch (Exception e) {
-      return hexColor;
+  // Vom Client (entprellt) gemeldeter sichtbarer Zellbereich; zurückgestellte Zellen im neuen Ausschnitt nachziehen.
+  @ClientCallable
+  private void onViewportChanged(int minX, int minY, int maxX, int maxY) {
+    viewMinX = Math.max(0, Math.min(minX, maxX) - VIEWPORT_MARGIN);
+    viewMaxX = Math.min(SIZE - 1, Math.max(minX, maxX) + VIEWPORT_MARGIN);
+    viewMinY = Math.max(0, Math.min(minY, maxY) - VIEWPORT_MARGIN);
+    viewMaxY = Math.min(SIZE - 1, Math.max(minY, maxY) + VIEWPORT_MARGIN);
+    for (int x = viewMinX; x <= viewMaxX; x++) {
+      for (int y = viewMinY; y <= viewMaxY; y++) {
+        int index = x * SIZE + y;
+        byte rendered = renderedState[index];
+        if (targetState[index] != 0 && rendered != targetState[index] && rendered != HIGHLIGHTED) {
+          paint(x, y, index);
+        }
+      }
     }
   }
 
-  private String getGroundColor(Ground ground) {
-    if (ground == null) {
-      return "#2F4F4F";
+  /**
+   * Fills a sector with {@code color} and outlines it (radar echoes, ship routes). The
+   * outline stays until the page is reloaded; later map updates only change the fill.
+   */
+  public void highlightCell(int x, int y, String color) {
+    if (x < 0 || x >= SIZE || y < 0 || y >= SIZE) {
+      return;
     }
-    return switch (ground) {
-      case Water   -> "#6694e4ff";
-      case Land    -> "#8B4513";
-      case Ice     -> "#E0FFFF";
-      case Harbour -> "#483D8B";
-      case None    -> "#2F4F4F";
-    };
+    renderer.highlightCell(x, y, color);
+    // Die Hervorhebung überschreibt die Füllung: erst das nächste Karten-Update zeichnet neu.
+    renderedState[x * SIZE + y] = HIGHLIGHTED;
   }
 
   public String getRotationShortName(ShipData shipData) {
@@ -127,37 +190,12 @@ public class Sea extends Div {
   }
 
   public void placeShipOnSea(ShipData shipData) {
-    int x = shipData.getSectorX();
-    int y = shipData.getSectorY();
     String shipId = shipData.getShipId();
     if (shipId == null || shipId.isBlank()) {
       return;
     }
-
-    Image img = new Image("images/ship.png", shipData.getShipName());
-    img.setWidth("100%");
-    img.setHeight("100%");
-    img.getStyle()
-        .set("object-fit", "contain");
-
-    String shortName = getRotationShortName(shipData);
-
-    String rotation = getRotateSetting(shortName);
-
-    img.getStyle().set("transform", rotation);
-
-    Div previousCell = shipCells.get(shipId);
-    if (previousCell != null) {
-      previousCell.getChildren()
-          .filter(component -> component instanceof Image)
-          .findFirst()
-          .ifPresent(previousCell::remove);
-    }
-
-    Div cell = cells[x][y];
-    cell.add(img);
-
-    shipCells.put(shipId, cell);
+    renderer.placeShip(shipId, shipData.getShipName(), shipData.getSectorX(), shipData.getSectorY(),
+        getRotationDegrees(getRotationShortName(shipData)));
   }
 
   public void removeShipFromSea(ShipData shipData) {
@@ -165,13 +203,7 @@ public class Sea extends Div {
     if (shipId == null || shipId.isBlank()) {
       return;
     }
-    Div cell = shipCells.remove(shipId);
-    if (cell != null) {
-      cell.getChildren()
-          .filter(component -> component instanceof Image)
-          .findFirst()
-          .ifPresent(cell::remove);
-    }
+    renderer.removeShip(shipId);
   }
 
   public void moveShip(ShipData shipData, Directions direction,Directions directionAfterNavigate) {
@@ -189,14 +221,6 @@ public class Sea extends Div {
       return;
     }
 
-    Div oldCell = shipCells.get(shipId);
-    if (oldCell != null) {
-      oldCell.getChildren()
-          .filter(component -> component instanceof Image)
-          .findFirst()
-          .ifPresent(oldCell::remove);
-    }
-
     shipData.setSectorX(newX);
     shipData.setSectorY(newY);
     shipData.setDirectionX(directionAfterNavigate.getDx());
@@ -204,17 +228,17 @@ public class Sea extends Div {
     placeShipOnSea(shipData);
   }
 
-  private String getRotateSetting(String direction) {
+  private int getRotationDegrees(String direction) {
     return switch (direction) {
-      case "N"  -> "rotate(0deg)";
-      case "NE" -> "rotate(45deg)";
-      case "E"  -> "rotate(90deg)";
-      case "SE" -> "rotate(135deg)";
-      case "S"  -> "rotate(180deg)";
-      case "SW" -> "rotate(225deg)";
-      case "W"  -> "rotate(270deg)";
-      case "NW" -> "rotate(315deg)";
-      default -> "rotate(0deg)";
+      case "N"  -> 0;
+      case "NE" -> 45;
+      case "E"  -> 90;
+      case "SE" -> 135;
+      case "S"  -> 180;
+      case "SW" -> 225;
+      case "W"  -> 270;
+      case "NW" -> 315;
+      default -> 0;
     };
   }
 
@@ -226,10 +250,7 @@ public class Sea extends Div {
         break;
       }
     }
-    int size = (int) (BASE_SIZE * zoomLevel);
-    gridContainer.getStyle()
-        .setWidth(size + "px")
-        .setHeight(size + "px");
+    renderer.setSize((int) (BASE_SIZE * zoomLevel));
   }
 
   public void setWheelZoomListener(Consumer<Double> listener) {
@@ -282,6 +303,33 @@ public class Sea extends Div {
     );
   }
 
+  private void attachViewportJs() {
+    getElement().executeJs(
+        "const wrapper = this;" +
+        "const n = $0;" +
+        "let timer = 0;" +
+        "const report = () => {" +
+        "  clearTimeout(timer);" +
+        "  timer = setTimeout(() => {" +
+        "    const grid = wrapper.firstElementChild;" +
+        "    if (!grid || !grid.clientWidth) return;" +
+        "    const cell = grid.clientWidth / n;" +
+        // Spalten von links nach rechts = x, Zeilen von oben nach unten = y absteigend
+        "    const minX = Math.floor(wrapper.scrollLeft / cell);" +
+        "    const maxX = Math.floor((wrapper.scrollLeft + wrapper.clientWidth - 1) / cell);" +
+        "    const maxY = n - 1 - Math.floor(wrapper.scrollTop / cell);" +
+        "    const minY = n - 1 - Math.floor((wrapper.scrollTop + wrapper.clientHeight - 1) / cell);" +
+        "    wrapper.$server.onViewportChanged(minX, minY, maxX, maxY);" +
+        "  }, 150);" +
+        "};" +
+        "wrapper.addEventListener('scroll', report, {passive: true});" +
+        // Zoom (Mausrad oder ZoomControl) ändert die Größe des inneren Gitters
+        "new ResizeObserver(report).observe(wrapper.firstElementChild);" +
+        "new ResizeObserver(report).observe(wrapper);",
+        SIZE
+    );
+  }
+
   private void setSeaContainerLayout() {
     // Outer wrapper: fixed size, scrollable
     getStyle()
@@ -293,35 +341,7 @@ public class Sea extends Div {
         .setBackground("transparent")
         .setPosition(Style.Position.RELATIVE);
 
-    // Inner grid container: zoomable
-    gridContainer.getStyle()
-        .setDisplay(Style.Display.GRID)
-        .set("grid-template-columns", "repeat(100, 1fr)")
-        .set("gap", "0")
-        .setWidth(BASE_SIZE + "px")
-        .setHeight(BASE_SIZE + "px")
-        .setBackground("transparent");
-
-    add(gridContainer);
-  }
-
-  private Div createBaseCell() {
-    Div cell = new Div();
-    cell.getStyle()
-        // Border/Highlight soll die Zellgröße nicht verändern (verhindert "Zoom"-Effekt).
-        .set("box-sizing", "border-box")
-        .setWidth("100%")
-        .setHeight("100%")
-        .setBackground(INITIAL_COLOR)
-        .setPosition(Style.Position.RELATIVE)
-        .setOverflow(Style.Overflow.HIDDEN)
-        .setDisplay(Style.Display.FLEX)
-        .setAlignItems(Style.AlignItems.CENTER)
-        .setJustifyContent(Style.JustifyContent.CENTER)
-        .setFontSize("16px")
-        .setColor("white");
-
-    return cell;
+    add(renderer.getComponent());
   }
 
   public void applyAutoPilotStep(ShipData shipData, AutoPilotData data) {
@@ -329,15 +349,14 @@ public class Sea extends Div {
       for (SectorData sd : data.getSectorDataList()) {
         int sx = sd.getSectorX();
         int sy = sd.getSectorY();
-        if (sx < 0 || sx >= 100 || sy < 0 || sy >= 100) continue;
+        if (sx < 0 || sx >= SIZE || sy < 0 || sy >= SIZE) continue;
 
-        Div cell = cells[sx][sy];
         SectorInfo info = new SectorInfo();
         info.setGround(sd.getGround());
         info.setDepth(sd.getDepth());
         info.setSectorX(sx);
         info.setSectorY(sy);
-        applySectorToCell(cell, info);
+        applySectorToCell(sx, sy, info);
       }
     }
 
@@ -350,23 +369,16 @@ public class Sea extends Div {
         return;
       }
 
-      Div oldCell = shipCells.get(shipId);
-      if (oldCell != null) {
-        oldCell.getChildren()
-            .filter(c -> c instanceof Image)
-            .findFirst()
-            .ifPresent(oldCell::remove);
-      }
-
       shipData.setSectorX(newX);
       shipData.setSectorY(newY);
       placeShipOnSea(shipData);
     }
   }
 
+  /** The cell component with the Div renderer; null with the client and canvas renderers, use {@link #highlightCell}. */
   public Div getCell(int x,int y){
-    if (y < 0 || y >= 100 || x < 0 || x >= 100) return null;
-    return cells[x][y];
+    if (y < 0 || y >= SIZE || x < 0 || x >= SIZE) return null;
+    return renderer instanceof DivSeaRenderer divRenderer ? divRenderer.getCell(x, y) : null;
   }
 
 }
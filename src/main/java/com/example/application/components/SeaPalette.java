@@ -0,0 +1,88 @@
+package com.example.application.components;
+
+import com.example.application.entity.Ground;
+
+/**
+ * Precomputed sector colors, indexed by ground type and quantized depth. Water runs
+ * through a bathymetric gradient from shallow to deep in {@link #DEPTH_LEVELS} steps; the
+ * other grounds have one color each. Lookups only index arrays and allocate nothing.
+ */
+public final class SeaPalette {
+
+  public static final int DEPTH_LEVELS = 16;
+  // Tiefer wird nicht mehr unterschieden
+  public static final int MAX_DEPTH = 4000;
+  // Index für unbekannten Boden (null)
+  private static final int UNKNOWN = Ground.values().length;
+
+  private static final int SHALLOW_WATER = 0x6694e4;
+  private static final int DEEP_WATER = 0x142a5c;
+
+  private static final String[] COLORS = new String[(UNKNOWN + 1) * DEPTH_LEVELS];
+
+  static {
+    for (Ground ground : Ground.values()) {
+      for (int level = 0; level < DEPTH_LEVELS; level++) {
+        COLORS[ground.ordinal() * DEPTH_LEVELS + level] = ground == Ground.Water
+            ? hex(interpolate(SHALLOW_WATER, DEEP_WATER, level / (double) (DEPTH_LEVELS - 1)))
+            : baseColor(ground);
+      }
+    }
+    for (int level = 0; level < DEPTH_LEVELS; level++) {
+      COLORS[UNKNOWN * DEPTH_LEVELS + level] = baseColor(Ground.None);
+    }
+  }
+
+  private SeaPalette() {
+  }
+
+  /** Palette index of a sector; equal indexes mean equal colors. */
+  public static int indexOf(Ground ground, int depth) {
+    if (ground == null) {
+      return UNKNOWN * DEPTH_LEVELS;
+    }
+    return ground.ordinal() * DEPTH_LEVELS + (ground == Ground.Water ? depthLevel(depth) : 0);
+  }
+
+  public static String color(int paletteIndex) {
+    return COLORS[paletteIndex];
+  }
+
+  public static String colorFor(Ground ground, int depth) {
+    return COLORS[indexOf(ground, depth)];
+  }
+
+  public static int size() {
+    return COLORS.length;
+  }
+
+  // Wurzel-Skala: im flachen Wasser feinere Stufen als in der Tiefsee.
+  static int depthLevel(int depth) {
+    if (depth <= 0) {
+      return 0;
+    }
+    double fraction = Math.sqrt(Math.min(depth, MAX_DEPTH) / (double) MAX_DEPTH);
+    return (int) Math.round(fraction * (DEPTH_LEVELS - 1));
+  }
+
+  private static String baseColor(Ground ground) {
+    return switch (ground) {
+      case Water   -> hex(SHALLOW_WATER);
+      case Land    -> "#8B4513";
+      case Ice     -> "#E0FFFF";
+      case Harbour -> "#483D8B";
+      case None    -> "#2F4F4F";
+    };
+  }
+
+  private static int interpolate(int from, int to, double t) {
+    int r = (int) Math.round(((from >> 16) & 0xff) + (((to >> 16) & 0xff) - ((from >> 16) & 0xff)) * t);
+    int g = (int) Math.round(((from >> 8) & 0xff) + (((to >> 8) & 0xff) - ((from >> 8) & 0xff)) * t);
+    int b = (int) Math.round((from & 0xff) + ((to & 0xff) - (from & 0xff)) * t);
+    return r << 16 | g << 8 | b;
+  }
+
+  private static String hex(int rgb) {
+    return String.format("#%06x", rgb);
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.application.components;
+
+import com.vaadin.flow.component.Component;
+
+/**
+ * Draws the 100x100 sector grid for {@link Sea}. Coordinates are sector coordinates
+ * (x to the east, y to the north); cells are painted with {@link SeaPalette} indexes,
+ * highlights with CSS hex colors.
+ */
+interface SeaRenderer {
+
+  Component getComponent();
+
+  void createCells();
+
+  void paintCell(int x, int y, int paletteIndex);
+
+  /** Fills the cell with {@code color} and outlines it; the outline stays when the cell is repainted. */
+  void highlightCell(int x, int y, String color);
+
+  void placeShip(String shipId, String shipName, int x, int y, int rotationDegrees);
+
+  void removeShip(String shipId);
+
+  void setSize(int pixels);
+}
@@ -0,0 +1,167 @@
+package com.example.application.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Transport settings for the ship server (:8080) and the ship base server (:8090),
+ * bound from {@code ocean.client.*} in application.properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "ocean.client")
+public class ShipClientProperties {
+
+  private Server shipServer = new Server("http://localhost:8080");
+  private Server baseServer = new Server("http://localhost:8090");
+  private Pool pool = new Pool();
+  private Resilience resilience = new Resilience();
+  private Hedging hedging = new Hedging();
+  private Admission admission = new Admission();
+
+  // Ship-server shards, partitioned by ship id; empty = ship-server/base-server only.
+  private List<Shard> shards = new ArrayList<>();
+  private int shardVirtualNodes = 128;
+
+  // HTTP/2 cleartext with HTTP/1.1 fallback.
+  private boolean http2 = false;
+
+  // How long a completed read stays shared with identical follow-up reads (0 = in-flight only).
+  private Duration singleFlightTtl = Duration.ZERO;
+
+  // Ask the base server for the binary sector grid (falls back to JSON by content type).
+  private boolean binaryMap = true;
+
+  // Limit for bodies that are aggregated in memory (ships, routes); the map is streamed.
+  private DataSize maxInMemorySize = DataSize.ofMegabytes(2);
+
+  @Data
+  public static class Server {
+    private String baseUrl;
+    private Duration responseTimeout = Duration.ofSeconds(5);
+    // Per-endpoint deadlines, keyed by endpoint name (e.g. radar, autoPilot, getShipRoute).
+    private Map<String, Duration> endpointTimeouts = new LinkedHashMap<>();
+
+    public Server() {
+    }
+
+    public Server(String baseUrl) {
+      this.baseUrl = baseUrl;
+    }
+
+    public Duration timeoutFor(String endpoint) {
+      String key = normalize(endpoint);
+      for (Map.Entry<String, Duration> entry : endpointTimeouts.entrySet()) {
+        if (normalize(entry.getKey()).equals(key)) {
+          return entry.getValue();
+        }
+      }
+      return responseTimeout;
+    }
+
+    private static String normalize(String endpoint) {
+      return endpoint.replace("-", "").toLowerCase(Locale.ROOT);
+    }
+  }
+
+  /** One ship-server instance with its base server; timeouts come from ship-server/base-server. */
+  @Data
+  public static class Shard {
+    private String name;
+    private String shipServerUrl;
+    private String baseServerUrl;
+  }
+
+  @Data
+  public static class Resilience {
+    // Circuit breaker per server
+    private int failureRateThreshold = 50;
+    private int slidingWindowSize = 20;
+    private int minimumCalls = 10;
+    private Duration openDuration = Duration.ofSeconds(10);
+    private int halfOpenCalls = 3;
+    // Bulkhead per endpoint
+    private int maxConcurrentCallsPerEndpoint = 64;
+    // Retries for idempotent reads
+    private int maxRetries = 2;
+    private Duration retryBackoff = Duration.ofMillis(50);
+    private double retryBudgetRatio = 0.2;
+    private int retryBudgetMaxTokens = 20;
+  }
+
+  @Data
+  public static class Hedging {
+    private boolean enabled = false;
+    // Idempotent reads that may be hedged
+    private List<String> endpoints = new ArrayList<>(List.of("radar", "scan", "getAllShipData"));
+    // Second attempt once the first is slower than this latency percentile of the endpoint
+    private double percentile = 0.95;
+    private Duration minDelay = Duration.ofMillis(20);
+    // Used until the endpoint has enough samples for a percentile
+    private Duration defaultDelay = Duration.ofMillis(200);
+    // At most this many hedges per original call (token budget)
+    private double maxRatio = 0.1;
+    private int maxTokens = 10;
+
+    public boolean isHedged(String endpoint) {
+      String key = Server.normalize(endpoint);
+      for (String candidate : endpoints) {
+        if (Server.normalize(candidate).equals(key)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  @Data
+  public static class Admission {
+    private boolean enabled = true;
+    // Token bucket per server, shared by all sessions
+    private Limit server = new Limit(500, 100);
+    // Overrides by server name (ship-server, base-server)
+    private Map<String, Limit> servers = new LinkedHashMap<>();
+    // Token bucket per Vaadin session
+    private Limit session = new Limit(50, 20);
+    // Calls waiting for a token, per session; more are rejected
+    private int maxQueuedPerSession = 100;
+    private Duration maxWait = Duration.ofSeconds(2);
+    // Background calls back off while interactive calls are slower than this
+    private Duration interactiveLatencyTarget = Duration.ofMillis(250);
+    private Duration backgroundMaxBackoff = Duration.ofSeconds(2);
+
+    public Limit serverLimit(String serverName) {
+      return servers.getOrDefault(serverName, server);
+    }
+  }
+
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Limit {
+    // 0 = unlimited
+    private double ratePerSecond;
+    private int burst;
+  }
+
+  @Data
+  public static class Pool {
+    private int maxConnections = 200;
+    private int pendingAcquireMaxCount = 1000;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private boolean keepAlive = true;
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration evictInBackground = Duration.ofSeconds(30);
+  }
+}
@@ -1,15 +1,56 @@
 package com.example.application.config;
 
+import com.example.application.client.SectorGridDecoder;
+import com.example.application.client.ShipServerMetrics;
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
+@EnableConfigurationProperties(ShipClientProperties.class)
 public class WebClientConfig {
 
+  // Ein gemeinsamer Pool für beide Server: Verbindungen werden wiederverwendet statt pro Request aufgebaut.
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider shipServerConnectionProvider(ShipClientProperties properties) {
+    ShipClientProperties.Pool pool = properties.getPool();
+    return ConnectionProvider.builder("ship-servers")
+        .maxConnections(pool.getMaxConnections())
+        .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+        .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+        .maxIdleTime(pool.getMaxIdleTime())
+        .maxLifeTime(pool.getMaxLifeTime())
+        .evictInBackground(pool.getEvictInBackground())
+        .build();
+  }
 
   @Bean
-  public WebClient.Builder webClientBuilder() {
-    return WebClient.builder();
+  public WebClient.Builder webClientBuilder(ConnectionProvider shipServerConnectionProvider,
+                                            ShipClientProperties properties,
+                                            ShipServerMetrics shipServerMetrics) {
+    ShipClientProperties.Pool pool = properties.getPool();
+    HttpClient httpClient = HttpClient.create(shipServerConnectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+        .option(ChannelOption.SO_KEEPALIVE, pool.isKeepAlive())
+        .keepAlive(pool.isKeepAlive());
+    if (properties.isHttp2()) {
+      httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+    int maxInMemorySize = (int) properties.getMaxInMemorySize().toBytes();
+    return WebClient.builder()
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .filter(shipServerMetrics.responseSizeFilter())
+        .codecs(configurer -> {
+          configurer.defaultCodecs().maxInMemorySize(maxInMemorySize);
+          SectorGridDecoder sectorGridDecoder = new SectorGridDecoder();
+          sectorGridDecoder.setMaxInMemorySize(maxInMemorySize);
+          configurer.customCodecs().register(sectorGridDecoder);
+        });
   }
 }
@@ -0,0 +1,27 @@
+package com.example.application.diagnostics;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/** One autopilot step of a session: upstream request, wait for the UI lock and repaint. */
+@Name("ocean.AutoPilotStep")
+@Label("Autopilot Step")
+@Category({"Ocean Explorer", "UI"})
+@Setter
+public class AutoPilotStepEvent extends Event {
+
+  @Label("Ship Id")
+  private String shipId;
+
+  @Label("Request Time")
+  @Timespan(Timespan.NANOSECONDS)
+  private long requestTime;
+
+  @Label("ui.access Queue Time")
+  @Description("Time between the response and the start of the ui.access task")
+  @Timespan(Timespan.NANOSECONDS)
+  private long queueTime;
+
+  @Label("Sectors Applied")
+  private int sectorsApplied;
+}
@@ -0,0 +1,22 @@
+package com.example.application.diagnostics;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/** One outbound call to the ship server or the ship base server, retries included. */
+@Name("ocean.HttpCall")
+@Label("Ship Server Call")
+@Category({"Ocean Explorer", "HTTP"})
+@Setter
+public class HttpCallEvent extends Event {
+
+  @Label("Server")
+  private String server;
+
+  @Label("Endpoint")
+  private String endpoint;
+
+  @Label("Outcome")
+  @Description("success, cancelled or the exception class")
+  private String outcome;
+}
@@ -0,0 +1,21 @@
+package com.example.application.diagnostics;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/** One live-sync tick applied to a session's ship list and ship position. */
+@Name("ocean.LiveShipSnapshot")
+@Label("Live Ship Snapshot")
+@Category({"Ocean Explorer", "UI"})
+@Setter
+public class LiveShipSnapshotEvent extends Event {
+
+  @Label("Ship Id")
+  private String shipId;
+
+  @Label("Ships")
+  private int ships;
+
+  @Label("Ship Found")
+  private boolean shipFound;
+}
@@ -0,0 +1,23 @@
+package com.example.application.diagnostics;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/** One Sea.applyMapSectors call. */
+@Name("ocean.MapApply")
+@Label("Map Apply")
+@Category({"Ocean Explorer", "UI"})
+@Setter
+public class MapApplyEvent extends Event {
+
+  @Label("Cells Touched")
+  private int cellsTouched;
+
+  @Label("Cells Changed")
+  @Description("Cells whose visible state changed and were repainted")
+  private int cellsChanged;
+
+  @Label("Cells Deferred")
+  @Description("Changed cells outside the visible viewport, painted once scrolled into view")
+  private int cellsDeferred;
+}
@@ -0,0 +1,90 @@
+package com.example.application.diagnostics;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of the Vaadin side: open UIs, running autopilots, autopilot steps and
+ * ui.access tasks. Components schedule their UI updates through {@link #access} so every
+ * task is counted; the backlog is read from the sessions' own access queues.
+ */
+@Component
+public class UiActivityMonitor implements VaadinServiceInitListener {
+
+  private final Set<UI> activeUis = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger runningAutoPilots = new AtomicInteger();
+  private final LongAdder autoPilotSteps = new LongAdder();
+  private final LongAdder uiUpdates = new LongAdder();
+
+  @Override
+  public void serviceInit(ServiceInitEvent event) {
+    event.getSource().addUIInitListener(init -> uiOpened(init.getUI()));
+  }
+
+  /** Counts a UI until it detaches; UIs created by Vaadin are registered automatically. */
+  public void uiOpened(UI ui) {
+    activeUis.add(ui);
+    ui.addDetachListener(detach -> activeUis.remove(ui));
+  }
+
+  public void access(UI ui, Command command) {
+    ui.access(() -> {
+      uiUpdates.increment();
+      command.execute();
+    });
+  }
+
+  public void autoPilotStarted() {
+    runningAutoPilots.incrementAndGet();
+  }
+
+  public void autoPilotStopped() {
+    runningAutoPilots.decrementAndGet();
+  }
+
+  public void autoPilotStep() {
+    autoPilotSteps.increment();
+  }
+
+  public int getActiveUis() {
+    return activeUis.size();
+  }
+
+  public int getRunningAutoPilots() {
+    return runningAutoPilots.get();
+  }
+
+  public long getAutoPilotSteps() {
+    return autoPilotSteps.sum();
+  }
+
+  public long getUiUpdates() {
+    return uiUpdates.sum();
+  }
+
+  /** ui.access tasks queued but not yet run, over all sessions. */
+  public int getAccessBacklog() {
+    Set<VaadinSession> sessions = new HashSet<>();
+    for (UI ui : activeUis) {
+      VaadinSession session = ui.getSession();
+      if (session != null) {
+        sessions.add(session);
+      }
+    }
+    int backlog = 0;
+    for (VaadinSession session : sessions) {
+      backlog += session.getPendingAccessQueue().size();
+    }
+    return backlog;
+  }
+}
@@ -0,0 +1,80 @@
+package com.example.application.loadgen;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A real Vaadin UI in its own VaadinSession of the running service, without a browser.
+ * Components attach, listeners run and ui.access goes through the session's access queue
+ * as in production. {@link #roundTrip()} stands in for the client: it runs the
+ * beforeClientResponse callbacks, collects pending JavaScript and state changes like a
+ * response would and discards them, and closes notifications and dialogs the user would
+ * have dismissed.
+ */
+class HeadlessUi {
+
+  private final VaadinSession session;
+  private final UI ui = new UI();
+
+  HeadlessUi(VaadinService service) {
+    // Ohne HTTP-Session gibt es kein Lock vom Servlet-Container; ein eigenes genügt.
+    Lock lock = new ReentrantLock();
+    this.session = new VaadinSession(service) {
+      @Override
+      public Lock getLockInstance() {
+        return lock;
+      }
+    };
+    session.lock();
+    try {
+      ui.getInternals().setSession(session);
+    } finally {
+      session.unlock();
+    }
+  }
+
+  UI getUi() {
+    return ui;
+  }
+
+  void access(Command command) {
+    ui.access(command);
+  }
+
+  void roundTrip() {
+    ui.access(() -> {
+      UIInternals internals = ui.getInternals();
+      internals.getStateTree().runExecutionsBeforeClientResponse();
+      // Der Browser würde Meldungen nach Ablauf und Dialoge per Klick schließen.
+      ui.getChildren().toList().forEach(HeadlessUi::dismiss);
+      internals.getStateTree().collectChanges(change -> { });
+      internals.dumpPendingJavaScriptInvocations();
+    });
+  }
+
+  void close() {
+    session.lock();
+    try {
+      ui.getInternals().setSession(null);
+    } finally {
+      session.unlock();
+    }
+  }
+
+  private static void dismiss(Component component) {
+    if (component instanceof Notification notification) {
+      notification.close();
+    } else if (component instanceof Dialog dialog) {
+      dialog.close();
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.example.application.loadgen;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Activated with {@code --spring.profiles.active=standin,loadgen}: ramps up simulated
+ * operator sessions step by step and prints a report per step.
+ */
+@Configuration
+@Profile("loadgen")
+@EnableConfigurationProperties(LoadGenProperties.class)
+public class LoadGenConfig {
+}
@@ -0,0 +1,30 @@
+package com.example.application.loadgen;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Settings of the load generator, bound from {@code ocean.loadgen.*}. */
+@Data
+@ConfigurationProperties(prefix = "ocean.loadgen")
+public class LoadGenProperties {
+
+  // Anzahl gleichzeitiger Sessions pro Stufe; Stufen laufen nacheinander.
+  private List<Integer> sessionSteps = new ArrayList<>(List.of(10, 25, 50, 100, 200, 400));
+  private Duration warmup = Duration.ofSeconds(10);
+  private Duration stepDuration = Duration.ofSeconds(60);
+  // Pause zwischen zwei Operator-Aktionen (Klickpause)
+  private Duration thinkTime = Duration.ofMillis(500);
+  private int navigateSteps = 5;
+  private int autoPilotSteps = 20;
+  private long seed = 7;
+  // Eine Stufe gilt als überlastet, sobald eine dieser Grenzen gerissen wird.
+  private double maxErrorRate = 0.05;
+  private Duration maxP99 = Duration.ofSeconds(2);
+  private boolean exitWhenDone = true;
+  // Sea-Renderer der simulierten Sessions (div, client oder canvas), wie ocean.sea.renderer
+  private String seaRenderer = "div";
+}
@@ -0,0 +1,169 @@
+package com.example.application.loadgen;
+
+import com.example.application.diagnostics.UiActivityMonitor;
+import com.example.application.service.LiveSyncBroadcaster;
+import com.example.application.service.ShipCommandService;
+import com.example.application.service.WorldMapCache;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drives {@link SimulatedOperator} sessions against the configured backend (normally the
+ * stand-in) in increasing steps and reports throughput, per-action latency percentiles,
+ * heap per session and thread counts. Each operator gets a browserless UI in the running
+ * Vaadin service (see {@link HeadlessUi}), captured when the service starts. Stops at the
+ * first step that exceeds the configured error rate or p99, which is the session count the
+ * instance cannot sustain.
+ */
+@Component
+@Profile("loadgen")
+public class LoadGenerator implements ApplicationRunner, VaadinServiceInitListener {
+
+  private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+  // Autopilot-Geschwindigkeiten wie im Speed-Select
+  private static final String[] AUTO_PILOT_SPEEDS = {"Slow", "Normal", "Fast"};
+
+  private final ShipCommandService shipService;
+  private final WorldMapCache worldMapCache;
+  private final LiveSyncBroadcaster liveSyncBroadcaster;
+  private final UiActivityMonitor uiActivity;
+  private final LoadGenProperties properties;
+  private final ConfigurableApplicationContext context;
+  private final AtomicReference<LoadReport> currentReport = new AtomicReference<>(new LoadReport());
+  private final List<SimulatedOperator> operators = new ArrayList<>();
+  private final CompletableFuture<VaadinService> vaadinService = new CompletableFuture<>();
+
+  public LoadGenerator(ShipCommandService shipService, WorldMapCache worldMapCache,
+                       LiveSyncBroadcaster liveSyncBroadcaster, UiActivityMonitor uiActivity,
+                       LoadGenProperties properties,
+                       ConfigurableApplicationContext context) {
+    this.shipService = shipService;
+    this.worldMapCache = worldMapCache;
+    this.liveSyncBroadcaster = liveSyncBroadcaster;
+    this.uiActivity = uiActivity;
+    this.properties = properties;
+    this.context = context;
+  }
+
+  @Override
+  public void serviceInit(ServiceInitEvent event) {
+    vaadinService.complete(event.getSource());
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    worldMapCache.awaitSnapshot().block(Duration.ofSeconds(30));
+    VaadinService service = awaitVaadinService();
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    Integer saturatedAt = null;
+
+    for (int sessions : properties.getSessionSteps()) {
+      long heapBefore = usedHeapAfterGc(memory);
+      List<SimulatedOperator> added = new ArrayList<>();
+      while (operators.size() + added.size() < sessions) {
+        int number = operators.size() + added.size();
+        added.add(new SimulatedOperator(number, service, shipService, worldMapCache, liveSyncBroadcaster, uiActivity,
+            properties, currentReport::get, AUTO_PILOT_SPEEDS[number % AUTO_PILOT_SPEEDS.length]));
+      }
+      long heapAfter = usedHeapAfterGc(memory);
+      added.forEach(SimulatedOperator::start);
+      operators.addAll(added);
+
+      Thread.sleep(properties.getWarmup().toMillis());
+      currentReport.set(new LoadReport());
+      Thread.sleep(properties.getStepDuration().toMillis());
+      LoadReport report = currentReport.get();
+
+      long heapPerNewSession = added.isEmpty() ? 0 : (heapAfter - heapBefore) / added.size();
+      boolean saturated = logStep(sessions, report, heapPerNewSession, memory, threads);
+      if (saturated) {
+        saturatedAt = sessions;
+        break;
+      }
+    }
+
+    operators.forEach(SimulatedOperator::stop);
+    if (saturatedAt != null) {
+      log.info("Instance saturated at {} sessions", saturatedAt);
+    } else {
+      log.info("All steps within limits (error rate <= {}, p99 <= {} ms)", properties.getMaxErrorRate(),
+          properties.getMaxP99().toMillis());
+    }
+    if (properties.isExitWhenDone()) {
+      System.exit(SpringApplication.exit(context));
+    }
+  }
+
+  private boolean logStep(int sessions, LoadReport report, long heapPerNewSession,
+                        MemoryMXBean memory, ThreadMXBean threads) {
+    Map<String, LoadReport.ActionStats> stats = report.snapshot();
+    double seconds = report.elapsed().toMillis() / 1000.0;
+    long total = 0;
+    long errors = 0;
+    double worstP99 = 0;
+    StringBuilder table = new StringBuilder();
+    for (Map.Entry<String, LoadReport.ActionStats> entry : stats.entrySet()) {
+      LoadReport.ActionStats action = entry.getValue();
+      total += action.getCount();
+      errors += action.getErrors();
+      worstP99 = Math.max(worstP99, action.getP99Millis());
+      table.append(String.format("  %-10s %8d ops %7.1f/s  err %5d  p50 %8.1f ms  p95 %8.1f ms  p99 %8.1f ms%n",
+          entry.getKey(), action.getCount(), action.getCount() / seconds, action.getErrors(),
+          action.getP50Millis(), action.getP95Millis(), action.getP99Millis()));
+    }
+    double errorRate = total == 0 ? 0 : (double) errors / total;
+    long heapUsed = memory.getHeapMemoryUsage().getUsed();
+
+    log.info(String.format("%d sessions: %.1f actions/s, error rate %.2f%%, "
+            + "heap %d MB (%d KB per new session), threads %d (peak %d)%n%s",
+        sessions, total / seconds, errorRate * 100, heapUsed >> 20, heapPerNewSession >> 10,
+        threads.getThreadCount(), threads.getPeakThreadCount(), table).stripTrailing());
+
+    return errorRate > properties.getMaxErrorRate() || worstP99 > properties.getMaxP99().toMillis();
+  }
+
+  // Das Vaadin-Servlet startet ggf. erst mit dem ersten Request; dann einen auslösen.
+  private VaadinService awaitVaadinService() throws Exception {
+    try {
+      return vaadinService.get(5, TimeUnit.SECONDS);
+    } catch (TimeoutException e) {
+      String port = context.getEnvironment().getProperty("local.server.port", "8081");
+      WebClient.create("http://localhost:" + port).get().uri("/")
+          .retrieve()
+          .toBodilessEntity()
+          .onErrorResume(ex -> Mono.empty())
+          .block(Duration.ofSeconds(30));
+      return vaadinService.get(30, TimeUnit.SECONDS);
+    }
+  }
+
+  private static long usedHeapAfterGc(MemoryMXBean memory) {
+    memory.gc();
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.application.loadgen;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/** Latencies and errors per operator action for one load step. */
+public class LoadReport {
+
+  private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final long startNanos = System.nanoTime();
+
+  public void record(String action, long nanos, boolean failed) {
+    Timer.builder("loadgen.action")
+        .tag("action", action)
+        .publishPercentiles(PERCENTILES)
+        .register(registry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+    if (failed) {
+      Counter.builder("loadgen.errors").tag("action", action).register(registry).increment();
+    }
+  }
+
+  public Map<String, ActionStats> snapshot() {
+    Map<String, ActionStats> stats = new TreeMap<>();
+    for (Timer timer : registry.find("loadgen.action").timers()) {
+      String action = timer.getId().getTag("action");
+      Counter errors = registry.find("loadgen.errors").tag("action", action).counter();
+      HistogramSnapshot histogram = timer.takeSnapshot();
+      double[] values = new double[PERCENTILES.length];
+      for (ValueAtPercentile percentile : histogram.percentileValues()) {
+        for (int i = 0; i < PERCENTILES.length; i++) {
+          if (percentile.percentile() == PERCENTILES[i]) {
+            values[i] = percentile.value(TimeUnit.MILLISECONDS);
+          }
+        }
+      }
+      stats.put(action, new ActionStats(histogram.count(), errors != null ? (long) errors.count() : 0,
+          values[0], values[1], values[2]));
+    }
+    return stats;
+  }
+
+  public Duration elapsed() {
+    return Duration.ofNanos(System.nanoTime() - startNanos);
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class ActionStats {
+    private final long count;
+    private final long errors;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+  }
+}
@@ -0,0 +1,199 @@
+package com.example.application.loadgen;
+
+import com.example.application.components.ControlPanel;
+import com.example.application.components.Navigation;
+import com.example.application.components.Sea;
+import com.example.application.diagnostics.UiActivityMonitor;
+import com.example.application.entity.*;
+import com.example.application.i18n.TranslationService;
+import com.example.application.service.LiveSyncBroadcaster;
+import com.example.application.service.ShipCommandService;
+import com.example.application.service.WorldMapCache;
+import com.example.application.views.OceanView;
+import com.vaadin.flow.server.VaadinService;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * One simulated operator session: its own OceanView attached to a {@link HeadlessUi} and a
+ * loop of ControlPanel actions launch, radar, navigate, autopilot at the session's speed and
+ * exit. The actions run the same ControlPanel code as the buttons, including ship list
+ * refreshes, live sync during autopilot and the Sea renderer's client batches; each is timed
+ * until its result is shown. Only the browser is missing: the client round trip is
+ * simulated every {@link #ROUND_TRIP} and its payload discarded.
+ */
+class SimulatedOperator {
+
+  private static final Duration ROUND_TRIP = Duration.ofMillis(100);
+  // Untergrenze, damit auch bei "Fast" ein paar Live-Sync-Ticks in den Autopilot fallen
+  private static final Duration MIN_AUTO_PILOT = Duration.ofSeconds(1);
+  private static final Duration ACTION_TIMEOUT = Duration.ofSeconds(30);
+
+  private final int number;
+  private final ShipCommandService shipService;
+  private final WorldMapCache worldMapCache;
+  private final LoadGenProperties properties;
+  private final Supplier<LoadReport> report;
+  private final SplittableRandom random;
+  private final HeadlessUi headless;
+  private final ControlPanel controlPanel;
+  // Hält den kompletten Komponentenbaum wie eine echte Session (für die Heap-Messung).
+  private final OceanView view;
+  private Disposable loop;
+  private Disposable roundTrips;
+
+  SimulatedOperator(int number, VaadinService service, ShipCommandService shipService, WorldMapCache worldMapCache,
+                    LiveSyncBroadcaster liveSyncBroadcaster, UiActivityMonitor uiActivity, LoadGenProperties properties,
+                    Supplier<LoadReport> report, String autoPilotSpeed) {
+    this.number = number;
+    this.shipService = shipService;
+    this.worldMapCache = worldMapCache;
+    this.properties = properties;
+    this.report = report;
+    this.random = new SplittableRandom(properties.getSeed() + number);
+    this.headless = new HeadlessUi(service);
+
+    TranslationService translationService = new TranslationService();
+    Sea sea = new Sea(worldMapCache, shipService, uiActivity, properties.getSeaRenderer());
+    this.controlPanel = new ControlPanel(sea, shipService, liveSyncBroadcaster, new Navigation(), translationService,
+        uiActivity);
+    this.view = new OceanView(controlPanel, sea, translationService);
+    // Wie beim Öffnen eines Tabs: Initialisierung mit aktueller UI, dann anhängen.
+    headless.access(() -> {
+      uiActivity.uiOpened(headless.getUi());
+      sea.init();
+      controlPanel.init();
+      controlPanel.setAutoPilotSpeed(autoPilotSpeed);
+      headless.getUi().add(view);
+    });
+  }
+
+  void start() {
+    roundTrips = Flux.interval(ROUND_TRIP)
+        .onBackpressureDrop()
+        .subscribe(tick -> headless.roundTrip());
+    loop = Mono.defer(this::runCycle)
+        // Fehler sind schon im Report gezählt; der Operator macht einfach weiter.
+        .onErrorResume(ex -> Mono.empty())
+        .then(Mono.defer(this::think))
+        .repeat()
+        .subscribe();
+  }
+
+  void stop() {
+    if (loop != null) {
+      loop.dispose();
+    }
+    if (roundTrips != null) {
+      roundTrips.dispose();
+    }
+    // Detach beendet Autopilot und Live-Sync wie beim Schließen des Tabs.
+    headless.close();
+  }
+
+  OceanView getView() {
+    return view;
+  }
+
+  private Mono<Void> runCycle() {
+    Directions heading = Directions.values()[random.nextInt(8)];
+    int[] position = pickLaunchSector();
+    return onUi("launch", () -> controlPanel.launchShip(
+            "Load" + number, position[0], position[1], heading.getShortName()))
+        .filter(response -> response.contains("#"))
+        .flatMap(shipId -> navigate(properties.getNavigateSteps()))
+        .flatMap(alive -> alive
+            ? autoPilot().then(think()).then(onUi("exit", controlPanel::exitShip))
+            : Mono.<Void>empty());
+  }
+
+  // Emits false once the ship has crashed or is no longer selected.
+  private Mono<Boolean> navigate(int remaining) {
+    if (remaining == 0) {
+      return Mono.just(true);
+    }
+    return think()
+        .then(onUi("radar", controlPanel::radar))
+        .flatMap(echoData -> {
+          // Läuft im UI-Kontext der Radar-Antwort, die Auswahl ist also aktuell.
+          ShipData ship = controlPanel.getSelectedShip();
+          if (ship == null) {
+            return Mono.just(false);
+          }
+          List<Vec2D> blocked = shipService.getUnavailableDirections(ship, echoData);
+          List<Directions> open = new ArrayList<>();
+          for (Directions direction : Directions.values()) {
+            if (!blocked.contains(new Vec2D(direction.getDx(), direction.getDy()))) {
+              open.add(direction);
+            }
+          }
+          if (open.isEmpty()) {
+            return Mono.just(true);
+          }
+          Directions target = open.get(random.nextInt(open.size()));
+          return onUi("navigate", () -> controlPanel.navigate(target.getShortName()))
+              .map(newDirection -> true)
+              .defaultIfEmpty(false);
+        })
+        .defaultIfEmpty(false)
+        .flatMap(alive -> alive ? navigate(remaining - 1) : Mono.just(false));
+  }
+
+  // Startet den Autopilot über das ControlPanel und lässt ihn etwa auto-pilot-steps Schritte laufen.
+  private Mono<Void> autoPilot() {
+    return Mono.<Duration>create(sink -> headless.access(() -> {
+          controlPanel.startAutoPilot();
+          sink.success(controlPanel.getAutoPilotDelay());
+        }))
+        .flatMap(delay -> {
+          Duration running = delay.multipliedBy(properties.getAutoPilotSteps());
+          return Mono.delay(running.compareTo(MIN_AUTO_PILOT) < 0 ? MIN_AUTO_PILOT : running);
+        })
+        .then(Mono.<Void>create(sink -> headless.access(() -> {
+          controlPanel.stopAutoPilot();
+          sink.success();
+        })));
+  }
+
+  private Mono<Long> think() {
+    return Mono.delay(properties.getThinkTime());
+  }
+
+  private int[] pickLaunchSector() {
+    List<SectorInfo> sectors = worldMapCache.getSnapshot().getSectors();
+    for (int attempt = 0; attempt < 50 && !sectors.isEmpty(); attempt++) {
+      SectorInfo sector = sectors.get(random.nextInt(sectors.size()));
+      if (sector.getGround() == Ground.Water) {
+        return new int[]{sector.getSectorX(), sector.getSectorY()};
+      }
+    }
+    return new int[]{random.nextInt(100), random.nextInt(100)};
+  }
+
+  // Löst die Aktion im UI-Kontext aus und misst bis zur angewendeten Antwort.
+  private <T> Mono<T> onUi(String action, Supplier<Mono<T>> uiAction) {
+    return timed(action, () -> Mono.<Mono<T>>create(sink -> headless.access(() -> sink.success(uiAction.get())))
+        .flatMap(Function.identity())
+        .timeout(ACTION_TIMEOUT));
+  }
+
+  private <T> Mono<T> timed(String action, Supplier<Mono<T>> call) {
+    return Mono.defer(() -> {
+      long start = System.nanoTime();
+      return call.get().doFinally(signal -> {
+        if (signal != SignalType.CANCEL) {
+          report.get().record(action, System.nanoTime() - start, signal == SignalType.ON_ERROR);
+        }
+      });
+    });
+  }
+}
@@ -0,0 +1,18 @@
+package com.example.application.service;
+
+import com.example.application.client.MapSnapshot;
+import com.example.application.entity.ShipData;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One tick of the shared live sync: all ship positions plus the map as cached at that moment.
+ */
+@Getter
+@AllArgsConstructor
+public final class LiveSnapshot {
+  private final List<ShipData> ships;
+  private final MapSnapshot map;
+}
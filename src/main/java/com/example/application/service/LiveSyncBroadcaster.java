@@ -0,0 +1,63 @@
+package com.example.application.service;
+
+import com.example.application.client.ShipBaseServerClient;
+import com.example.application.diagnostics.UiActivityMonitor;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Single application-level poller for ship positions. Each tick is fetched once and fanned
+ * out to every subscribed UI; the poller only runs while at least one UI is subscribed.
+ */
+@Service
+public class LiveSyncBroadcaster {
+
+  private final Flux<LiveSnapshot> snapshots;
+  private final UiActivityMonitor uiActivity;
+
+  public LiveSyncBroadcaster(ShipBaseServerClient shipBaseServerClient, WorldMapCache worldMapCache,
+                             UiActivityMonitor uiActivity,
+                             @Value("${ocean.live-sync.interval:200ms}") Duration interval) {
+    this.uiActivity = uiActivity;
+    // share(): startet mit dem ersten Abonnenten, stoppt nach dem letzten.
+    this.snapshots = Flux.interval(Duration.ZERO, interval)
+        .onBackpressureDrop()
+        .concatMap(tick -> shipBaseServerClient.loadShipsAsync()
+            .map(ships -> new LiveSnapshot(ships, worldMapCache.getSnapshot()))
+            .onErrorResume(ex -> Mono.empty()))
+        .share();
+  }
+
+  /**
+   * Delivers every snapshot to {@code listener} inside {@code ui.access}. If the UI has not
+   * processed the previous snapshot yet, only the newest one is delivered. The subscription
+   * ends when the returned registration is removed or the UI detaches.
+   */
+  public Registration subscribe(UI ui, SerializableConsumer<LiveSnapshot> listener) {
+    AtomicReference<LiveSnapshot> pending = new AtomicReference<>();
+    Disposable subscription = snapshots.subscribe(snapshot -> {
+      if (pending.getAndSet(snapshot) == null) {
+        uiActivity.access(ui, () -> {
+          LiveSnapshot latest = pending.getAndSet(null);
+          if (latest != null) {
+            listener.accept(latest);
+          }
+        });
+      }
+    }, ex -> { });
+    Registration detachRegistration = ui.addDetachListener(event -> subscription.dispose());
+    return () -> {
+      subscription.dispose();
+      detachRegistration.remove();
+    };
+  }
+}
@@ -0,0 +1,125 @@
+package com.example.application.service;
+
+import com.example.application.client.ShipBaseServerClient;
+import com.example.application.entity.ShipSector;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-ship route cache. Each lookup only asks the base server for sectors after the last
+ * known {@link ShipSector#getId()} and appends them; routes are kept as packed arrays
+ * instead of one object per visited sector. Routes with sectors without id are reloaded
+ * in full every time. Routes not looked up for a while are dropped, so ships that
+ * disappear without an exit do not stay cached.
+ */
+@Service
+public class RouteCache {
+
+  private static final long ROUTE_IDLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+  private final ShipBaseServerClient shipBaseServerClient;
+  private final Map<String, ShipRoute> routes = new ConcurrentHashMap<>();
+  private final AtomicLong lookups = new AtomicLong();
+
+  public RouteCache(ShipBaseServerClient shipBaseServerClient) {
+    this.shipBaseServerClient = shipBaseServerClient;
+  }
+
+  public Mono<List<ShipSector>> getRoute(String shipId) {
+    if ((lookups.incrementAndGet() & 255) == 0) {
+      evictIdleRoutes();
+    }
+    ShipRoute route = routes.computeIfAbsent(shipId, id -> new ShipRoute());
+    route.lastUsed = System.nanoTime();
+    Long afterId = route.lastId();
+    return shipBaseServerClient.loadRouteAsync(shipId, afterId)
+        .map(newSectors -> {
+          if (afterId == null) {
+            route.replace(newSectors);
+          } else {
+            route.append(newSectors);
+          }
+          return route.toSectors(shipId);
+        });
+  }
+
+  private void evictIdleRoutes() {
+    long now = System.nanoTime();
+    routes.values().removeIf(route -> now - route.lastUsed > ROUTE_IDLE_NANOS);
+  }
+
+  public void evict(String shipId) {
+    routes.remove(shipId);
+  }
+
+  static final class ShipRoute {
+    // Platzhalter für Sektoren ohne id.
+    private static final long NO_ID = Long.MIN_VALUE;
+
+    private long[] ids = new long[16];
+    // x in the upper, y in the lower 16 bits.
+    private int[] cells = new int[16];
+    private int size;
+    // Mindestens ein Sektor ohne id: kein Cursor möglich, jede Abfrage lädt die ganze Route.
+    private boolean unnumbered;
+    private volatile long lastUsed;
+
+    synchronized Long lastId() {
+      return size == 0 || unnumbered ? null : ids[size - 1];
+    }
+
+    // Vollständige Route ersetzt den Stand; Sektoren ohne id bleiben in Server-Reihenfolge erhalten.
+    synchronized void replace(List<ShipSector> sectors) {
+      size = 0;
+      unnumbered = sectors.stream().anyMatch(sector -> sector.getId() == null);
+      if (unnumbered) {
+        sectors.forEach(this::add);
+      } else {
+        append(sectors);
+      }
+    }
+
+    synchronized void append(List<ShipSector> sectors) {
+      if (sectors.isEmpty()) {
+        return;
+      }
+      List<ShipSector> ordered = new ArrayList<>(sectors);
+      ordered.sort(Comparator.comparing(ShipSector::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+      for (ShipSector sector : ordered) {
+        Long id = sector.getId();
+        // Überlappende Antworten paralleler Abfragen nicht doppelt anhängen.
+        if (id == null || (size > 0 && id <= ids[size - 1])) {
+          continue;
+        }
+        add(sector);
+      }
+    }
+
+    private void add(ShipSector sector) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+        cells = Arrays.copyOf(cells, size * 2);
+      }
+      ids[size] = sector.getId() != null ? sector.getId() : NO_ID;
+      cells[size] = (sector.getShipSectorX() << 16) | (sector.getShipSectorY() & 0xFFFF);
+      size++;
+    }
+
+    synchronized List<ShipSector> toSectors(String shipId) {
+      List<ShipSector> sectors = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        sectors.add(new ShipSector(ids[i] != NO_ID ? ids[i] : null, shipId, cells[i] >> 16, (short) cells[i]));
+      }
+      return sectors;
+    }
+  }
+}
@@ -1,10 +1,14 @@
 package com.example.application.service;
 
+import com.example.application.client.MapDelta;
+import com.example.application.client.MapSnapshot;
 import com.example.application.client.ShipBaseServerClient;
 import com.example.application.client.ShipClient;
+import com.example.application.client.ShipServerMetrics;
 import com.example.application.entity.*;
 import com.example.application.entity.ScanResult;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,43 +18,78 @@ public class ShipCommandService {
 
   private final ShipClient shipClient;
   private final ShipBaseServerClient shipBaseServerClient;
+  private final RouteCache routeCache;
+  private final ShipServerMetrics metrics;
 
-  private final List<Vec2D> unavailableDirections = new ArrayList<>();
-
-  public ShipCommandService(ShipClient shipClient, ShipBaseServerClient shipBaseServerClient) {
+  public ShipCommandService(ShipClient shipClient, ShipBaseServerClient shipBaseServerClient, RouteCache routeCache,
+                            ShipServerMetrics metrics) {
     this.shipClient = shipClient;
     this.shipBaseServerClient = shipBaseServerClient;
+    this.routeCache = routeCache;
+    this.metrics = metrics;
   }
 
   public String launch(String name, int x, int y, int dx, int dy) {
-    String response = shipClient.launch(name, x, y, dx, dy);
-    if (response != null && !response.equals("Error")) {
-      return response;
-    }
-    return response;
+    return launchAsync(name, x, y, dx, dy).block();
+  }
+
+  public Mono<String> launchAsync(String name, int x, int y, int dx, int dy) {
+    return metrics.observeCommand("launch", () -> shipClient.launchAsync(name, x, y, dx, dy));
   }
 
   public List<SectorInfo> loadMap() {
     return shipBaseServerClient.loadMap();
   }
 
+  public Mono<List<SectorInfo>> loadMapAsync() {
+    return shipBaseServerClient.loadMapAsync();
+  }
+
+  public Mono<MapDelta> loadMapChangesAsync(MapSnapshot since) {
+    return shipBaseServerClient.loadMapChangesAsync(since);
+  }
+
   public List<ShipData> getShips() {
     return shipBaseServerClient.loadShips();
   }
 
+  public Mono<List<ShipData>> getShipsAsync() {
+    return shipBaseServerClient.loadShipsAsync();
+  }
+
   public void exit(String shipId){
-    shipClient.exit(shipId);
+    exitAsync(shipId).block();
+  }
+
+  public Mono<Void> exitAsync(String shipId) {
+    return metrics.observeCommand("exit", () -> shipClient.exitAsync(shipId)
+        .doOnSuccess(ignored -> routeCache.evict(shipId)));
   }
 
   public List<Echo> getSectorInfo(String shipId) {
-    EchoData echos = shipClient.radar(shipId);
-    return echos.getEchos();
+    return getSectorInfoAsync(shipId).block();
+  }
+
+  public Mono<List<Echo>> getSectorInfoAsync(String shipId) {
+    return radarAsync(shipId).map(EchoData::getEchos);
+  }
+
+  public Mono<EchoData> radarAsync(String shipId) {
+    return metrics.observeCommand("radar", () -> shipClient.radarAsync(shipId));
   }
 
   public List<Vec2D> getUnavailableDirections(ShipData shipData) {
-    unavailableDirections.clear();
+    return getUnavailableDirectionsAsync(shipData).block();
+  }
+
+  public Mono<List<Vec2D>> getUnavailableDirectionsAsync(ShipData shipData) {
+    return radarAsync(shipData.getShipId())
+        .map(echoData -> getUnavailableDirections(shipData, echoData));
+  }
 
-    EchoData echoData = shipClient.radar(shipData.getShipId());
+  // Läuft pro Aufruf auf einer eigenen Liste, da der Service von allen Sessions geteilt wird.
+  public List<Vec2D> getUnavailableDirections(ShipData shipData, EchoData echoData) {
+    List<Vec2D> unavailableDirections = new ArrayList<>();
 
     List<Echo> echos = echoData.getEchos();
 
@@ -61,47 +100,47 @@ public class ShipCommandService {
     }
     int dx = shipData.getSectorX();
     int dy = shipData.getSectorY();
-    setUnavailableDirectionsForCoordinates(shipData.getDirectionX(), shipData.getDirectionY());
+    setUnavailableDirectionsForCoordinates(unavailableDirections, shipData.getDirectionX(), shipData.getDirectionY());
     for (Echo echo : echos) {
       int echoX = dx + echo.getSector().getVec2()[0];
       int echoY = dy + echo.getSector().getVec2()[1];
-      isOutsideValidArea(echo, echoX, echoY);
+      isOutsideValidArea(unavailableDirections, echo, echoX, echoY);
     }
     return unavailableDirections;
   }
 
-  private void isOutsideValidArea(Echo echo, int echoX, int echoY) {
+  private void isOutsideValidArea(List<Vec2D> unavailableDirections, Echo echo, int echoX, int echoY) {
     if (echoX > 99 || echoY > 99 || echoY < 0 || echoX < 0) {
-      addIfNotPresent(
+      addIfNotPresent(unavailableDirections,
           echo.getSector().getVec2()[0],
           echo.getSector().getVec2()[1]
       );
     }
   }
 
-  private void setUnavailableDirectionsForCoordinates(int dx, int dy) {
+  private void setUnavailableDirectionsForCoordinates(List<Vec2D> unavailableDirections, int dx, int dy) {
     //N and S
     if (dx == 0) {
-      addIfNotPresent(-1, 0);
-      addIfNotPresent(1, 0);
+      addIfNotPresent(unavailableDirections, -1, 0);
+      addIfNotPresent(unavailableDirections, 1, 0);
     }// NE and SW
     else if (dx == dy) {
-      addIfNotPresent(-1, 1);
-      addIfNotPresent(1, -1);
+      addIfNotPresent(unavailableDirections, -1, 1);
+      addIfNotPresent(unavailableDirections, 1, -1);
     }
     // E and W
     else if (dy == 0) {
-      addIfNotPresent(0, 1);
-      addIfNotPresent(0, -1);
+      addIfNotPresent(unavailableDirections, 0, 1);
+      addIfNotPresent(unavailableDirections, 0, -1);
     }
     // SE and NW
     else if (dx == -dy) {
-      addIfNotPresent(1, 1);
-      addIfNotPresent(-1, -1);
+      addIfNotPresent(unavailableDirections, 1, 1);
+      addIfNotPresent(unavailableDirections, -1, -1);
     }
   }
 
-  private void addIfNotPresent(int x, int y) {
+  private void addIfNotPresent(List<Vec2D> unavailableDirections, int x, int y) {
     Vec2D vec = new Vec2D(x, y);
     if (!unavailableDirections.contains(vec)) {
       unavailableDirections.add(vec);
@@ -109,42 +148,62 @@ public class ShipCommandService {
   }
 
   public Vec2D navigate(String shipId,Directions actualDirection,Directions expectedDirection) {
+    return navigateAsync(shipId, actualDirection, expectedDirection).block();
+  }
+
+  public Mono<Vec2D> navigateAsync(String shipId, Directions actualDirection, Directions expectedDirection) {
+    return metrics.observeCommand("navigate", () -> navigateStepAsync(shipId, actualDirection, expectedDirection));
+  }
+
+  private Mono<Vec2D> navigateStepAsync(String shipId, Directions actualDirection, Directions expectedDirection) {
 
     // Gleiche Richtung
     if (actualDirection == expectedDirection) {
-      return shipClient.navigation(shipId,Course.Forward,Rudder.Center);
+      return shipClient.navigationAsync(shipId,Course.Forward,Rudder.Center);
     }
     int diff = ( actualDirection.ordinal() - expectedDirection.ordinal() + 8) % 8;
     // Gleiche Richtung Rückwerz
     if (diff == 4) {
-      return shipClient.navigation(shipId,Course.Backward,Rudder.Center);
+      return shipClient.navigationAsync(shipId,Course.Backward,Rudder.Center);
     }
 
     // 45° → vorwärts + Rudder
     if (diff == 1 || diff == 7) {
       Course course = Course.Forward;
       Rudder rudder = (diff == 1) ? Rudder.Left : Rudder.Right;
-      return shipClient.navigation(shipId, course, rudder);
+      return shipClient.navigationAsync(shipId, course, rudder);
     }
 
     // 135° → rückwärts + Rudder-Korrektur
     if (diff == 3 || diff == 5) {
       Course course = Course.Backward;
       Rudder rudder = (diff == 3) ? Rudder.Left : Rudder.Right;
-      return shipClient.navigation(shipId, course, rudder);
+      return shipClient.navigationAsync(shipId, course, rudder);
     }
-    return null;
+    return Mono.empty();
   }
 
   public AutoPilotData runAutoPilotStep(String shipId) {
-    return shipClient.autoPilot(shipId);
+    return runAutoPilotStepAsync(shipId).block();
+  }
+
+  public Mono<AutoPilotData> runAutoPilotStepAsync(String shipId) {
+    return metrics.observeCommand("autoPilot", () -> shipClient.autoPilotAsync(shipId));
   }
 
   public ScanResult scan(String shipId){
-    return shipClient.scan(shipId);
+    return scanAsync(shipId).block();
+  }
+
+  public Mono<ScanResult> scanAsync(String shipId) {
+    return metrics.observeCommand("scan", () -> shipClient.scanAsync(shipId));
   }
 
   public List<ShipSector> getShipRoute(String shipId){
-    return shipBaseServerClient.loadRoutes().get(shipId);
+    return getShipRouteAsync(shipId).block();
+  }
+
+  public Mono<List<ShipSector>> getShipRouteAsync(String shipId) {
+    return metrics.observeCommand("route", () -> routeCache.getRoute(shipId));
   }
 }
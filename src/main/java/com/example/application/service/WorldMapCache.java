@@ -0,0 +1,121 @@
+package com.example.application.service;
+
+import com.example.application.client.MapDelta;
+import com.example.application.client.MapSnapshot;
+import com.example.application.client.ShipBaseServerClient;
+import com.example.application.entity.SectorInfo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Application-wide copy of the sector map. One background task keeps it current with
+ * conditional polls; every Sea reads from here instead of loading its own map.
+ */
+@Service
+public class WorldMapCache {
+
+  // Sektoren pro Block beim progressiven Laden der Karte.
+  public static final int MAP_CHUNK_SIZE = 500;
+
+  private final ShipBaseServerClient shipBaseServerClient;
+  private final Duration refreshInterval;
+
+  private volatile MapSnapshot snapshot = MapSnapshot.EMPTY;
+  private volatile boolean loaded = false;
+  private final Sinks.One<MapSnapshot> firstLoad = Sinks.one();
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+  private Disposable refreshTask;
+  // Gemeinsamer Kartenstream für Tabs, die vor dem ersten Laden geöffnet werden.
+  private Flux<List<SectorInfo>> initialStream;
+
+  public WorldMapCache(ShipBaseServerClient shipBaseServerClient,
+                       @Value("${ocean.map-cache.refresh-interval:1s}") Duration refreshInterval) {
+    this.shipBaseServerClient = shipBaseServerClient;
+    this.refreshInterval = refreshInterval;
+  }
+
+  @PostConstruct
+  public void start() {
+    refreshTask = Flux.interval(Duration.ZERO, refreshInterval)
+        .onBackpressureDrop()
+        .concatMap(tick -> refresh().onErrorResume(ex -> Mono.empty()))
+        .subscribe();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (refreshTask != null) {
+      refreshTask.dispose();
+    }
+  }
+
+  public MapSnapshot getSnapshot() {
+    return snapshot;
+  }
+
+  public boolean isLoaded() {
+    return loaded;
+  }
+
+  /**
+   * Current snapshot if the map has been loaded, otherwise completes with the first
+   * successfully loaded one.
+   */
+  public Mono<MapSnapshot> awaitSnapshot() {
+    return loaded ? Mono.just(snapshot) : firstLoad.asMono();
+  }
+
+  /**
+   * Progressive first load for tabs opened while the cache is still empty: all of them
+   * share one streamed download, chunks already received are replayed to tabs that join
+   * later. Once the map is loaded this is just the cached map in one chunk.
+   */
+  public synchronized Flux<List<SectorInfo>> streamInitialMap() {
+    if (loaded) {
+      return Flux.just(snapshot.getSectors());
+    }
+    if (initialStream == null) {
+      initialStream = shipBaseServerClient.streamMapAsync(MAP_CHUNK_SIZE)
+          .doFinally(signal -> clearInitialStream())
+          .replay()
+          .refCount();
+    }
+    return initialStream;
+  }
+
+  private synchronized void clearInitialStream() {
+    initialStream = null;
+  }
+
+  /**
+   * Polls the base server once; completes empty if another refresh is already in flight.
+   */
+  public Mono<MapDelta> refresh() {
+    return Mono.defer(() -> {
+      if (!refreshing.compareAndSet(false, true)) {
+        return Mono.empty();
+      }
+      return shipBaseServerClient.loadMapChangesAsync(snapshot)
+          .doOnNext(this::store)
+          .doFinally(signal -> refreshing.set(false));
+    });
+  }
+
+  private void store(MapDelta delta) {
+    snapshot = delta.getSnapshot();
+    if (!loaded) {
+      loaded = true;
+      firstLoad.tryEmitValue(snapshot);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.application.standin;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Delays and fails stand-in responses according to {@link StandInProperties.Fault}.
+ * The delay is a timer, not a sleeping thread, so thousands of slow requests cost no threads.
+ */
+@Component
+@Profile("standin")
+public class FaultInjector {
+
+  // 99. Perzentil der Standardnormalverteilung
+  private static final double Z_99 = 2.3263;
+
+  private final StandInProperties properties;
+  private final AtomicLong requestCounter = new AtomicLong();
+
+  public FaultInjector(StandInProperties properties) {
+    this.properties = properties;
+  }
+
+  public <T> Mono<T> apply(String endpoint, Supplier<T> handler) {
+    StandInProperties.Fault fault = properties.faultFor(endpoint);
+    // Zufall pro Anfrage aus Seed und laufender Nummer: gleiche Reihenfolge, gleiche Fehler.
+    SplittableRandom random = new SplittableRandom(properties.getSeed() * 31 + requestCounter.incrementAndGet());
+    Duration delay = sampleDelay(fault, random);
+    boolean fail = random.nextDouble() < fault.getErrorRate();
+
+    Mono<T> response = fail
+        ? Mono.error(new ResponseStatusException(HttpStatus.valueOf(fault.getErrorStatus()), "Injected failure"))
+        : Mono.fromSupplier(handler);
+    return delay.isZero() ? response : Mono.delay(delay).then(response);
+  }
+
+  private Duration sampleDelay(StandInProperties.Fault fault, SplittableRandom random) {
+    long medianNanos = fault.getMedian().toNanos();
+    long nanos = switch (fault.getDistribution()) {
+      case FIXED -> medianNanos;
+      case LOG_NORMAL -> {
+        long p99Nanos = Math.max(medianNanos, fault.getP99().toNanos());
+        if (medianNanos <= 0) {
+          yield 0;
+        }
+        double sigma = Math.log((double) p99Nanos / medianNanos) / Z_99;
+        yield (long) (medianNanos * Math.exp(sigma * random.nextGaussian()));
+      }
+    };
+    if (fault.getStallRate() > 0 && random.nextDouble() < fault.getStallRate()) {
+      nanos += fault.getStallDuration().toNanos();
+    }
+    return Duration.ofNanos(Math.max(0, nanos));
+  }
+}
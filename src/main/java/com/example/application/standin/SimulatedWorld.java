@@ -0,0 +1,391 @@
+package com.example.application.standin;
+
+import com.example.application.entity.*;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The 100x100 world behind the stand-in servers: generated terrain, launched ships,
+ * their routes and which sectors have been explored. Every newly explored sector gets
+ * the next map version, so map polls can be answered with deltas.
+ */
+@Component
+@Profile("standin")
+public class SimulatedWorld {
+
+  public static final int SIZE = 100;
+
+  private static final double SEA_LEVEL = 0.62;
+  private static final int MAX_DEPTH = 4000;
+
+  private final Ground[] ground = new Ground[SIZE * SIZE];
+  private final int[] depth = new int[SIZE * SIZE];
+  private final int[] height = new int[SIZE * SIZE];
+  private final String[] exploredBy = new String[SIZE * SIZE];
+  // 0 = unerforscht, sonst die Kartenversion, in der der Sektor erforscht wurde
+  private final long[] sectorVersion = new long[SIZE * SIZE];
+  private final Map<String, ShipData> ships = new LinkedHashMap<>();
+  private final Map<String, List<ShipSector>> routes = new LinkedHashMap<>();
+  private final SplittableRandom random;
+  private final int radarRadius;
+
+  private long mapVersion = 1;
+  private long nextRouteId = 1;
+  private long nextShipNumber = 1;
+
+  public SimulatedWorld(StandInProperties properties) {
+    StandInProperties.Payload payload = properties.getPayload();
+    this.random = new SplittableRandom(properties.getSeed());
+    this.radarRadius = Math.max(1, payload.getRadarRadius());
+    generateTerrain();
+    populate(payload);
+  }
+
+  public synchronized String launch(String name, int x, int y, int dx, int dy) {
+    if (!inBounds(x, y)) {
+      return "Position outside of the map";
+    }
+    if (!isNavigable(x, y)) {
+      return "Cannot launch on " + ground[indexOf(x, y)];
+    }
+    if (Directions.fromDelta(dx, dy) == null) {
+      return "Invalid direction";
+    }
+    String shipId = name + "#" + nextShipNumber++;
+    ships.put(shipId, new ShipData(shipId, name, x, y, dx, dy));
+    long version = mapVersion + 1;
+    recordRoute(shipId, x, y);
+    boolean changed = explore(x, y, shipId, version);
+    finishChange(changed, version);
+    return shipId;
+  }
+
+  public synchronized EchoData radar(String shipId) {
+    ShipData ship = requireShip(shipId);
+    List<Echo> echos = new ArrayList<>();
+    List<NotNavigable> notNavigable = new ArrayList<>();
+    long version = mapVersion + 1;
+    boolean changed = false;
+    for (int ox = -radarRadius; ox <= radarRadius; ox++) {
+      for (int oy = -radarRadius; oy <= radarRadius; oy++) {
+        if (ox == 0 && oy == 0) {
+          continue;
+        }
+        int x = ship.getSectorX() + ox;
+        int y = ship.getSectorY() + oy;
+        Vec2D offset = new Vec2D(ox, oy);
+        if (!inBounds(x, y)) {
+          continue;
+        }
+        int index = indexOf(x, y);
+        echos.add(new Echo(new Sector(offset), height[index], ground[index]));
+        if (Math.abs(ox) <= 1 && Math.abs(oy) <= 1 && !isNavigable(x, y)) {
+          notNavigable.add(new NotNavigable(offset));
+        }
+        changed |= explore(x, y, shipId, version);
+      }
+    }
+    finishChange(changed, version);
+    return new EchoData(echos, notNavigable);
+  }
+
+  /**
+   * Moves the ship one sector and returns its new heading, or null if it ran aground
+   * or off the map (the ship is then removed, like a crash on the real server).
+   */
+  public synchronized Vec2D navigate(String shipId, Course course, Rudder rudder) {
+    ShipData ship = requireShip(shipId);
+    Directions heading = Directions.fromDelta(ship.getDirectionX(), ship.getDirectionY());
+    if (heading == null) {
+      heading = Directions.NORTH;
+    }
+    // Vorwärts: Ruder links dreht gegen den Uhrzeigersinn; rückwärts spiegelverkehrt.
+    int turn = rudder == Rudder.Left ? -1 : rudder == Rudder.Right ? 1 : 0;
+    Directions move = course == Course.Forward
+        ? rotate(heading, turn)
+        : rotate(heading, 4 - turn);
+    Directions newHeading = course == Course.Forward ? move : rotate(move, 4);
+
+    int x = ship.getSectorX() + move.getDx();
+    int y = ship.getSectorY() + move.getDy();
+    if (!inBounds(x, y) || !isNavigable(x, y)) {
+      removeShip(shipId);
+      return null;
+    }
+    moveShip(ship, x, y, newHeading);
+    return new Vec2D(newHeading.getDx(), newHeading.getDy());
+  }
+
+  public synchronized ScanResult scan(String shipId) {
+    ShipData ship = requireShip(shipId);
+    int index = indexOf(ship.getSectorX(), ship.getSectorY());
+    float stddev = 1.0f + (float) random.nextDouble() * 4.0f;
+    int measured = Math.max(0, depth[index] + (int) Math.round(random.nextGaussian() * stddev));
+    long version = mapVersion + 1;
+    finishChange(explore(ship.getSectorX(), ship.getSectorY(), shipId, version), version);
+    return new ScanResult(measured, stddev);
+  }
+
+  /** One autopilot step: keep the heading if possible, otherwise turn towards open water. */
+  public synchronized AutoPilotData autoPilot(String shipId) {
+    ShipData ship = requireShip(shipId);
+    Directions heading = Directions.fromDelta(ship.getDirectionX(), ship.getDirectionY());
+    if (heading == null) {
+      heading = Directions.NORTH;
+    }
+    Directions next = null;
+    int firstTurn = random.nextBoolean() ? 1 : -1;
+    for (int step = 0; step < 8 && next == null; step++) {
+      // 0, +1, -1, +2, -2, ... abwechselnd um den aktuellen Kurs herum
+      int turn = ((step + 1) / 2) * (step % 2 == 1 ? firstTurn : -firstTurn);
+      Directions candidate = rotate(heading, turn);
+      int x = ship.getSectorX() + candidate.getDx();
+      int y = ship.getSectorY() + candidate.getDy();
+      if (inBounds(x, y) && isNavigable(x, y)) {
+        next = candidate;
+      }
+    }
+    if (next != null) {
+      moveShip(ship, ship.getSectorX() + next.getDx(), ship.getSectorY() + next.getDy(), next);
+    }
+
+    List<SectorData> sectorDataList = new ArrayList<>();
+    long version = mapVersion + 1;
+    boolean changed = false;
+    for (int ox = -radarRadius; ox <= radarRadius; ox++) {
+      for (int oy = -radarRadius; oy <= radarRadius; oy++) {
+        int x = ship.getSectorX() + ox;
+        int y = ship.getSectorY() + oy;
+        if (!inBounds(x, y)) {
+          continue;
+        }
+        int index = indexOf(x, y);
+        sectorDataList.add(new SectorData(shipId, ground[index], x, y, height[index], depth[index], 0f));
+        changed |= explore(x, y, shipId, version);
+      }
+    }
+    finishChange(changed, version);
+    return new AutoPilotData(shipId, new ShipPosition(ship.getSectorX(), ship.getSectorY()), sectorDataList);
+  }
+
+  public synchronized void exit(String shipId) {
+    requireShip(shipId);
+    removeShip(shipId);
+  }
+
+  public synchronized List<ShipData> getShips() {
+    List<ShipData> copy = new ArrayList<>(ships.size());
+    for (ShipData ship : ships.values()) {
+      copy.add(new ShipData(ship.getShipId(), ship.getShipName(), ship.getSectorX(), ship.getSectorY(),
+          ship.getDirectionX(), ship.getDirectionY()));
+    }
+    return copy;
+  }
+
+  public synchronized long getMapVersion() {
+    return mapVersion;
+  }
+
+  /** Explored sectors whose version is greater than {@code since} (all explored sectors for 0). */
+  public synchronized List<SectorInfo> getSectorsSince(long since) {
+    List<SectorInfo> sectors = new ArrayList<>();
+    for (int index = 0; index < sectorVersion.length; index++) {
+      if (sectorVersion[index] > since) {
+        sectors.add(toSectorInfo(index));
+      }
+    }
+    return sectors;
+  }
+
+  public synchronized Map<String, List<ShipSector>> getRoutes() {
+    Map<String, List<ShipSector>> copy = new LinkedHashMap<>();
+    routes.forEach((shipId, route) -> copy.put(shipId, List.copyOf(route)));
+    return copy;
+  }
+
+  public synchronized List<ShipSector> getRoute(String shipId, Long afterId) {
+    List<ShipSector> route = routes.getOrDefault(shipId, List.of());
+    List<ShipSector> result = new ArrayList<>();
+    for (ShipSector sector : route) {
+      if (afterId == null || sector.getId() > afterId) {
+        result.add(sector);
+      }
+    }
+    return result;
+  }
+
+  private ShipData requireShip(String shipId) {
+    ShipData ship = ships.get(shipId);
+    if (ship == null) {
+      throw new UnknownShipException(shipId);
+    }
+    return ship;
+  }
+
+  private void moveShip(ShipData ship, int x, int y, Directions heading) {
+    ship.setSectorX(x);
+    ship.setSectorY(y);
+    ship.setDirectionX(heading.getDx());
+    ship.setDirectionY(heading.getDy());
+    recordRoute(ship.getShipId(), x, y);
+    long version = mapVersion + 1;
+    finishChange(explore(x, y, ship.getShipId(), version), version);
+  }
+
+  private void removeShip(String shipId) {
+    ships.remove(shipId);
+    // Die Route bleibt erhalten, wie beim echten Base-Server.
+  }
+
+  private void recordRoute(String shipId, int x, int y) {
+    routes.computeIfAbsent(shipId, id -> new ArrayList<>())
+        .add(new ShipSector(nextRouteId++, shipId, x, y));
+  }
+
+  private boolean explore(int x, int y, String shipId, long version) {
+    int index = indexOf(x, y);
+    if (sectorVersion[index] != 0) {
+      return false;
+    }
+    sectorVersion[index] = version;
+    exploredBy[index] = shipId;
+    return true;
+  }
+
+  private void finishChange(boolean changed, long version) {
+    if (changed) {
+      mapVersion = version;
+    }
+  }
+
+  private SectorInfo toSectorInfo(int index) {
+    SectorInfo info = new SectorInfo();
+    info.setShipId(exploredBy[index]);
+    info.setGround(ground[index]);
+    info.setDepth(depth[index]);
+    info.setSectorX(index / SIZE);
+    info.setSectorY(index % SIZE);
+    return info;
+  }
+
+  private boolean isNavigable(int x, int y) {
+    Ground g = ground[indexOf(x, y)];
+    return g == Ground.Water || g == Ground.Harbour;
+  }
+
+  private void generateTerrain() {
+    // Zwei Oktaven Value-Noise: grobe Kontinente, feine Küsten.
+    double[][] coarse = lattice(11);
+    double[][] fine = lattice(26);
+    for (int x = 0; x < SIZE; x++) {
+      for (int y = 0; y < SIZE; y++) {
+        double elevation = 0.7 * sample(coarse, x, y, 10) + 0.3 * sample(fine, x, y, 4);
+        int index = indexOf(x, y);
+        if (elevation > SEA_LEVEL) {
+          ground[index] = Ground.Land;
+          height[index] = (int) ((elevation - SEA_LEVEL) * 3000);
+        } else {
+          ground[index] = y < 4 || y >= SIZE - 4 ? Ground.Ice : Ground.Water;
+          depth[index] = Math.min(MAX_DEPTH, (int) ((SEA_LEVEL - elevation) * 3000));
+        }
+      }
+    }
+    for (int x = 1; x < SIZE - 1; x++) {
+      for (int y = 1; y < SIZE - 1; y++) {
+        int index = indexOf(x, y);
+        if (ground[index] == Ground.Land && touchesWater(x, y) && random.nextDouble() < 0.04) {
+          ground[index] = Ground.Harbour;
+          height[index] = 0;
+        }
+      }
+    }
+  }
+
+  private void populate(StandInProperties.Payload payload) {
+    for (int i = 0; i < payload.getShips(); i++) {
+      int x;
+      int y;
+      do {
+        x = random.nextInt(SIZE);
+        y = random.nextInt(SIZE);
+      } while (ground[indexOf(x, y)] != Ground.Water);
+      Directions heading = Directions.values()[random.nextInt(8)];
+      String shipId = launch(payload.getShipNamePrefix() + (i + 1), x, y, heading.getDx(), heading.getDy());
+      for (int step = 0; step < payload.getRouteHistory() && ships.containsKey(shipId); step++) {
+        autoPilot(shipId);
+      }
+    }
+    int target = (int) (Math.min(1.0, Math.max(0.0, payload.getInitiallyExplored())) * SIZE * SIZE);
+    List<Integer> unexplored = new ArrayList<>();
+    for (int index = 0; index < sectorVersion.length; index++) {
+      if (sectorVersion[index] == 0) {
+        unexplored.add(index);
+      }
+    }
+    int explored = SIZE * SIZE - unexplored.size();
+    long version = mapVersion + 1;
+    boolean changed = false;
+    while (explored < target && !unexplored.isEmpty()) {
+      int index = unexplored.remove(random.nextInt(unexplored.size()));
+      changed |= explore(index / SIZE, index % SIZE, null, version);
+      explored++;
+    }
+    finishChange(changed, version);
+  }
+
+  private boolean touchesWater(int x, int y) {
+    for (Directions direction : Directions.values()) {
+      if (ground[indexOf(x + direction.getDx(), y + direction.getDy())] == Ground.Water) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private double[][] lattice(int size) {
+    double[][] values = new double[size + 1][size + 1];
+    for (int i = 0; i <= size; i++) {
+      for (int j = 0; j <= size; j++) {
+        values[i][j] = random.nextDouble();
+      }
+    }
+    return values;
+  }
+
+  private static double sample(double[][] lattice, int x, int y, int cellSize) {
+    int gx = x / cellSize;
+    int gy = y / cellSize;
+    double fx = smooth((x % cellSize) / (double) cellSize);
+    double fy = smooth((y % cellSize) / (double) cellSize);
+    double top = lerp(lattice[gx][gy], lattice[gx + 1][gy], fx);
+    double bottom = lerp(lattice[gx][gy + 1], lattice[gx + 1][gy + 1], fx);
+    return lerp(top, bottom, fy);
+  }
+
+  private static double smooth(double t) {
+    return t * t * (3 - 2 * t);
+  }
+
+  private static double lerp(double a, double b, double t) {
+    return a + (b - a) * t;
+  }
+
+  private static Directions rotate(Directions direction, int steps) {
+    Directions[] values = Directions.values();
+    return values[Math.floorMod(direction.ordinal() + steps, values.length)];
+  }
+
+  private static boolean inBounds(int x, int y) {
+    return x >= 0 && x < SIZE && y >= 0 && y < SIZE;
+  }
+
+  private static int indexOf(int x, int y) {
+    return x * SIZE + y;
+  }
+}
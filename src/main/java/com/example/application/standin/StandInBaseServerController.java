@@ -0,0 +1,79 @@
+package com.example.application.standin;
+
+import com.example.application.client.SectorGridCodec;
+import com.example.application.entity.SectorInfo;
+import com.example.application.entity.ShipData;
+import com.example.application.entity.ShipSector;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stand-in for the ship base server's {@code /shipBaseServerAPI/*} endpoints, including
+ * ETag/304, the {@code since} delta cursor, the binary sector grid and per-ship routes.
+ */
+@RestController
+@Profile("standin")
+@RequestMapping("/shipBaseServerAPI")
+public class StandInBaseServerController {
+
+  private static final String MAP_VERSION_HEADER = "X-Map-Version";
+  private static final String MAP_DELTA_HEADER = "X-Map-Delta";
+  private static final MediaType SECTOR_GRID_MEDIA_TYPE = MediaType.asMediaType(SectorGridCodec.MIME_TYPE);
+
+  private final SimulatedWorld world;
+  private final FaultInjector faults;
+
+  public StandInBaseServerController(SimulatedWorld world, FaultInjector faults) {
+    this.world = world;
+    this.faults = faults;
+  }
+
+  @GetMapping("/getAllShipData")
+  public Mono<List<ShipData>> getAllShipData() {
+    return faults.apply("getAllShipData", world::getShips);
+  }
+
+  @GetMapping("/allSectorInfo")
+  public Mono<ResponseEntity<Object>> allSectorInfo(
+      @RequestParam(required = false) Long since,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    return faults.apply("allSectorInfo", () -> {
+      long version = world.getMapVersion();
+      String etag = "\"" + version + "\"";
+      if (etag.equals(ifNoneMatch)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+      }
+      boolean delta = since != null && since > 0 && since <= version;
+      List<SectorInfo> sectors = world.getSectorsSince(delta ? since : 0);
+      ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+          .eTag(etag)
+          .header(MAP_VERSION_HEADER, Long.toString(version))
+          .header(MAP_DELTA_HEADER, Boolean.toString(delta));
+      if (accept != null && accept.contains(SectorGridCodec.MIME_TYPE.toString())) {
+        byte[] grid = SectorGridCodec.encode(sectors, SimulatedWorld.SIZE, SimulatedWorld.SIZE, 1, true);
+        return response.contentType(SECTOR_GRID_MEDIA_TYPE).body(grid);
+      }
+      return response.contentType(MediaType.APPLICATION_JSON).body(sectors);
+    });
+  }
+
+  @GetMapping("/getShipRoute")
+  public Mono<Map<String, List<ShipSector>>> getShipRoutes() {
+    return faults.apply("getShipRoute", world::getRoutes);
+  }
+
+  @GetMapping("/getShipRoute/{shipId}")
+  public Mono<List<ShipSector>> getShipRoute(@PathVariable String shipId,
+                                             @RequestParam(required = false) Long afterId) {
+    return faults.apply("getShipRoute", () -> world.getRoute(shipId, afterId));
+  }
+}
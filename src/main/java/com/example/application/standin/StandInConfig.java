@@ -0,0 +1,15 @@
+package com.example.application.standin;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Activated with {@code --spring.profiles.active=standin}: the app then serves
+ * {@code /api/ship/*} and {@code /shipBaseServerAPI/*} itself and its clients point at it.
+ */
+@Configuration
+@Profile("standin")
+@EnableConfigurationProperties(StandInProperties.class)
+public class StandInConfig {
+}
@@ -0,0 +1,70 @@
+package com.example.application.standin;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings of the embedded stand-in for the ship server and the ship base server,
+ * bound from {@code ocean.standin.*} (see application-standin.properties).
+ */
+@Data
+@ConfigurationProperties(prefix = "ocean.standin")
+public class StandInProperties {
+
+  // Same seed, same world and same sequence of injected faults.
+  private long seed = 42;
+  private Fault defaults = new Fault();
+  // Per-endpoint overrides, keyed by endpoint name (e.g. radar, autoPilot, allSectorInfo).
+  private Map<String, Fault> endpoints = new LinkedHashMap<>();
+  private Payload payload = new Payload();
+
+  public Fault faultFor(String endpoint) {
+    String key = normalize(endpoint);
+    for (Map.Entry<String, Fault> entry : endpoints.entrySet()) {
+      if (normalize(entry.getKey()).equals(key)) {
+        return entry.getValue();
+      }
+    }
+    return defaults;
+  }
+
+  private static String normalize(String endpoint) {
+    return endpoint.replace("-", "").toLowerCase(Locale.ROOT);
+  }
+
+  public enum LatencyDistribution {
+    FIXED,
+    LOG_NORMAL
+  }
+
+  @Data
+  public static class Fault {
+    // FIXED always waits the median; LOG_NORMAL is fitted through median and p99.
+    private LatencyDistribution distribution = LatencyDistribution.LOG_NORMAL;
+    private Duration median = Duration.ofMillis(5);
+    private Duration p99 = Duration.ofMillis(40);
+    // Rare long pauses on top of the distribution (GC, lock convoy, slow disk).
+    private double stallRate = 0.0;
+    private Duration stallDuration = Duration.ofSeconds(2);
+    private double errorRate = 0.0;
+    private int errorStatus = 503;
+  }
+
+  @Data
+  public static class Payload {
+    // Share of the 100x100 world that is already explored at startup (1.0 = full map payload).
+    private double initiallyExplored = 0.3;
+    private int ships = 5;
+    // Name prefix of pre-launched ships; give each stand-in shard its own to keep ship ids unique.
+    private String shipNamePrefix = "Ship";
+    // Route points recorded per pre-launched ship.
+    private int routeHistory = 200;
+    // Radar and autopilot reveal a (2r+1)^2 square around the ship.
+    private int radarRadius = 1;
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.application.standin;
+
+import com.example.application.entity.*;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/** Stand-in for the ship server's {@code /api/ship/*} endpoints. */
+@RestController
+@Profile("standin")
+@RequestMapping("/api/ship")
+public class StandInShipController {
+
+  private final SimulatedWorld world;
+  private final FaultInjector faults;
+
+  public StandInShipController(SimulatedWorld world, FaultInjector faults) {
+    this.world = world;
+    this.faults = faults;
+  }
+
+  @PostMapping("/launch")
+  public Mono<ResponseEntity<String>> launch(@RequestParam String name, @RequestParam int x, @RequestParam int y,
+                                             @RequestParam int dx, @RequestParam int dy) {
+    return faults.apply("launch", () -> {
+      String result = world.launch(name, x, y, dx, dy);
+      // Wie der echte Server: Fehlertext ohne '#' im Body einer 400-Antwort.
+      return result.contains("#") ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    });
+  }
+
+  @GetMapping("/radar")
+  public Mono<EchoData> radar(@RequestParam String shipId) {
+    return faults.apply("radar", () -> world.radar(shipId));
+  }
+
+  @GetMapping("/navigate")
+  public Mono<Vec2D> navigate(@RequestParam String shipId, @RequestParam Course course, @RequestParam Rudder rudder) {
+    return faults.apply("navigate", () -> world.navigate(shipId, course, rudder));
+  }
+
+  @GetMapping("/scan")
+  public Mono<ScanResult> scan(@RequestParam String shipId) {
+    return faults.apply("scan", () -> world.scan(shipId));
+  }
+
+  @PostMapping("/autoPilot")
+  public Mono<AutoPilotData> autoPilot(@RequestParam String shipId) {
+    return faults.apply("autoPilot", () -> world.autoPilot(shipId));
+  }
+
+  @PostMapping("/exit")
+  public Mono<ResponseEntity<Void>> exit(@RequestParam String shipId) {
+    return faults.apply("exit", () -> {
+      world.exit(shipId);
+      return ResponseEntity.ok().build();
+    });
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.application.standin;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UnknownShipException extends RuntimeException {
+
+  public UnknownShipException(String shipId) {
+    super("Unknown ship " + shipId);
+  }
+}
@@ -0,0 +1,242 @@
+package com.example.application.views;
+
+import com.example.application.components.AppTitle;
+import com.example.application.diagnostics.UiActivityMonitor;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
+import com.vaadin.flow.router.NotFoundException;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.annotation.SpringComponent;
+import com.vaadin.flow.spring.annotation.UIScope;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admin page with live internals: sessions, autopilots, ui.access load and upstream
+ * latency per endpoint. Refreshes on a fixed interval with at most one pending push.
+ * Not authenticated, so it answers "not found" unless {@code ocean.dashboard.enabled}
+ * is set (loadgen and standin profiles).
+ */
+@Route("admin/performance")
+@PageTitle("Ocean Explorer – Performance")
+@SpringComponent
+@UIScope
+public class PerformanceView extends VerticalLayout implements BeforeEnterObserver {
+
+  private final boolean enabled;
+  private final UiActivityMonitor uiActivity;
+  private final MeterRegistry meterRegistry;
+  private final Duration refreshInterval;
+
+  private final Map<String, Span> stats = new LinkedHashMap<>();
+  private final Grid<UpstreamRow> upstreamGrid = new Grid<>();
+  private final AtomicBoolean refreshPending = new AtomicBoolean();
+  private Disposable refreshTask;
+
+  // Zählerstände des letzten Refresh, für Raten pro Sekunde
+  private long lastRefreshNanos;
+  private long lastAutoPilotSteps;
+  private long lastUiUpdates;
+  private final Map<String, Long> lastRequestCounts = new HashMap<>();
+
+  public PerformanceView(UiActivityMonitor uiActivity, MeterRegistry meterRegistry,
+                         @Value("${ocean.dashboard.enabled:false}") boolean enabled,
+                         @Value("${ocean.dashboard.refresh-interval:1s}") Duration refreshInterval) {
+    this.enabled = enabled;
+    this.uiActivity = uiActivity;
+    this.meterRegistry = meterRegistry;
+    this.refreshInterval = refreshInterval;
+
+    setPadding(true);
+    setSpacing(true);
+    getStyle().setBackground("#0a192f");
+    setMinHeight("100vh");
+
+    FlexLayout cards = new FlexLayout();
+    cards.setFlexWrap(FlexLayout.FlexWrap.WRAP);
+    cards.getStyle().set("gap", "12px");
+    for (String label : List.of("Active UIs", "Running autopilots", "Autopilot steps/s", "UI updates/s",
+        "ui.access backlog", "Upstream requests/s", "Admission queue", "Heap used", "Heap used / UIs")) {
+      cards.add(createCard(label));
+    }
+
+    upstreamGrid.addColumn(UpstreamRow::getServer).setHeader("Server");
+    upstreamGrid.addColumn(UpstreamRow::getEndpoint).setHeader("Endpoint");
+    upstreamGrid.addColumn(row -> format(row.getRate())).setHeader("req/s");
+    upstreamGrid.addColumn(row -> format(row.getP50())).setHeader("p50 ms");
+    upstreamGrid.addColumn(row -> format(row.getP95())).setHeader("p95 ms");
+    upstreamGrid.addColumn(row -> format(row.getP99())).setHeader("p99 ms");
+    upstreamGrid.addColumn(UpstreamRow::getErrors).setHeader("Errors");
+    upstreamGrid.setAllRowsVisible(true);
+    upstreamGrid.setWidth("900px");
+
+    add(AppTitle.create(), cards, upstreamGrid);
+  }
+
+  @Override
+  public void beforeEnter(BeforeEnterEvent event) {
+    if (!enabled) {
+      event.rerouteToError(NotFoundException.class);
+    }
+  }
+
+  @Override
+  protected void onAttach(AttachEvent attachEvent) {
+    super.onAttach(attachEvent);
+    UI ui = attachEvent.getUI();
+    lastRefreshNanos = System.nanoTime();
+    refreshTask = Flux.interval(refreshInterval)
+        .onBackpressureDrop()
+        .subscribe(tick -> {
+          // Gedrosselt: solange ein Refresh in der Queue steht, wird kein weiterer eingereiht.
+          if (refreshPending.compareAndSet(false, true)) {
+            uiActivity.access(ui, () -> {
+              refreshPending.set(false);
+              refresh();
+            });
+          }
+        });
+  }
+
+  @Override
+  protected void onDetach(DetachEvent detachEvent) {
+    if (refreshTask != null) {
+      refreshTask.dispose();
+      refreshTask = null;
+    }
+    super.onDetach(detachEvent);
+  }
+
+  private void refresh() {
+    long now = System.nanoTime();
+    double seconds = Math.max(0.001, (now - lastRefreshNanos) / 1e9);
+    lastRefreshNanos = now;
+
+    long autoPilotSteps = uiActivity.getAutoPilotSteps();
+    long uiUpdates = uiActivity.getUiUpdates();
+    int activeUis = uiActivity.getActiveUis();
+    Runtime runtime = Runtime.getRuntime();
+    long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+    List<UpstreamRow> rows = upstreamRows(seconds);
+    double upstreamRate = rows.stream().mapToDouble(UpstreamRow::getRate).sum();
+
+    setStat("Active UIs", String.valueOf(activeUis));
+    setStat("Running autopilots", String.valueOf(uiActivity.getRunningAutoPilots()));
+    setStat("Autopilot steps/s", format((autoPilotSteps - lastAutoPilotSteps) / seconds));
+    setStat("UI updates/s", format((uiUpdates - lastUiUpdates) / seconds));
+    setStat("ui.access backlog", String.valueOf(uiActivity.getAccessBacklog()));
+    setStat("Upstream requests/s", format(upstreamRate));
+    setStat("Admission queue", String.valueOf((long) meterRegistry.find("ship.client.admission.queued").gauges().stream()
+        .mapToDouble(Gauge::value).sum()));
+    setStat("Heap used", (heapUsed >> 20) + " MB");
+    // Gesamter Heap (Spring, Caches, Stand-in) geteilt durch die UIs, kein Verbrauch pro Session.
+    setStat("Heap used / UIs", activeUis == 0 ? "–" : (heapUsed / activeUis >> 10) + " KB");
+    upstreamGrid.setItems(rows);
+
+    lastAutoPilotSteps = autoPilotSteps;
+    lastUiUpdates = uiUpdates;
+  }
+
+  private List<UpstreamRow> upstreamRows(double seconds) {
+    Map<String, UpstreamRow> rows = new TreeMap<>();
+    for (Timer timer : meterRegistry.find("ship.client.requests").timers()) {
+      String server = timer.getId().getTag("server");
+      String endpoint = timer.getId().getTag("endpoint");
+      String key = server + " " + endpoint;
+      UpstreamRow row = rows.computeIfAbsent(key, k -> new UpstreamRow(server, endpoint));
+      row.count += timer.count();
+      // Perzentile der erfolgreichen Aufrufe; fehlgeschlagene haben einen eigenen Timer.
+      String error = timer.getId().getTag("error");
+      if (error == null || "none".equals(error)) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+          double millis = value.value(TimeUnit.MILLISECONDS);
+          if (value.percentile() == 0.5) {
+            row.p50 = millis;
+          } else if (value.percentile() == 0.95) {
+            row.p95 = millis;
+          } else if (value.percentile() == 0.99) {
+            row.p99 = millis;
+          }
+        }
+      }
+    }
+    for (Counter counter : meterRegistry.find("ship.client.errors").counters()) {
+      UpstreamRow row = rows.get(counter.getId().getTag("server") + " " + counter.getId().getTag("endpoint"));
+      if (row != null) {
+        row.errors += (long) counter.count();
+      }
+    }
+    for (Map.Entry<String, UpstreamRow> entry : rows.entrySet()) {
+      UpstreamRow row = entry.getValue();
+      Long previous = lastRequestCounts.put(entry.getKey(), row.count);
+      row.rate = previous == null ? 0 : (row.count - previous) / seconds;
+    }
+    return new ArrayList<>(rows.values());
+  }
+
+  private Div createCard(String label) {
+    Span title = new Span(label);
+    title.getStyle().setColor("#8892b0").setFontSize("12px");
+    Span value = new Span("–");
+    value.getStyle().setColor("white").setFontSize("22px").set("font-weight", "600");
+    stats.put(label, value);
+
+    Div card = new Div(title, new Div(value));
+    card.getStyle()
+        .setBackground("rgba(102, 153, 255, 0.12)")
+        .setBorder("1px solid rgba(102, 153, 255, 0.35)")
+        .setBorderRadius("8px")
+        .setPadding("10px 14px")
+        .set("min-width", "160px");
+    return card;
+  }
+
+  private void setStat(String label, String value) {
+    stats.get(label).setText(value);
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.1f", value);
+  }
+
+  @Getter
+  static class UpstreamRow {
+    private final String server;
+    private final String endpoint;
+    private long count;
+    private double rate;
+    private double p50;
+    private double p95;
+    private double p99;
+    private long errors;
+
+    UpstreamRow(String server, String endpoint) {
+      this.server = server;
+      this.endpoint = endpoint;
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.example.application.client;
+
+import com.example.application.config.ShipClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+  @Test
+  void staysClosedBelowMinimumCalls() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+    fail(breaker, 3);
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+  }
+
+  @Test
+  void staysClosedBelowThreshold() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+    succeed(breaker, 3);
+    fail(breaker, 1);
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void opensAtThresholdAndRejectsCalls() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+    succeed(breaker, 2);
+    fail(breaker, 2);
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+  }
+
+  @Test
+  void slidingWindowForgetsOldFailures() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+    fail(breaker, 3);
+    succeed(breaker, 4);
+    fail(breaker, 1);
+
+    // 1 von 4 im Fenster; über alle Aufrufe wären es 4 von 8.
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void turnsHalfOpenAfterOpenDuration() {
+    CircuitBreaker breaker = openBreaker();
+
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+  }
+
+  @Test
+  void limitsTrialCallsWhileHalfOpen() {
+    CircuitBreaker breaker = openBreaker();
+
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+  }
+
+  @Test
+  void ignoredTrialReleasesItsSlot() {
+    CircuitBreaker breaker = openBreaker();
+    breaker.tryAcquirePermission();
+    breaker.tryAcquirePermission();
+
+    breaker.onIgnored();
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+  }
+
+  @Test
+  void closesAfterSuccessfulTrialsWithFreshWindow() {
+    CircuitBreaker breaker = openBreaker();
+    breaker.tryAcquirePermission();
+    breaker.tryAcquirePermission();
+
+    succeed(breaker, 2);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+    // Die Fehler vor dem Öffnen zählen nicht mehr.
+    fail(breaker, 3);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void reopensOnFailedTrial() {
+    CircuitBreaker breaker = openBreaker();
+    breaker.tryAcquirePermission();
+    breaker.tryAcquirePermission();
+
+    breaker.onFailure();
+
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  // Geöffnet mit openDuration 0: der nächste Aufruf darf sofort als Probe durch.
+  private static CircuitBreaker openBreaker() {
+    CircuitBreaker breaker = breaker(Duration.ZERO);
+    fail(breaker, 4);
+    assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    return breaker;
+  }
+
+  private static CircuitBreaker breaker(Duration openDuration) {
+    ShipClientProperties.Resilience resilience = new ShipClientProperties.Resilience();
+    resilience.setFailureRateThreshold(50);
+    resilience.setSlidingWindowSize(4);
+    resilience.setMinimumCalls(4);
+    resilience.setOpenDuration(openDuration);
+    resilience.setHalfOpenCalls(2);
+    return new CircuitBreaker(resilience);
+  }
+
+  private static void succeed(CircuitBreaker breaker, int calls) {
+    for (int i = 0; i < calls; i++) {
+      breaker.onSuccess();
+    }
+  }
+
+  private static void fail(CircuitBreaker breaker, int calls) {
+    for (int i = 0; i < calls; i++) {
+      breaker.onFailure();
+    }
+  }
+}
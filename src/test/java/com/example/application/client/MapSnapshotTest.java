@@ -0,0 +1,104 @@
+package com.example.application.client;
+
+import com.example.application.entity.Ground;
+import com.example.application.entity.SectorInfo;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MapSnapshotTest {
+
+  @Test
+  void changesSinceItselfIsEmpty() {
+    MapSnapshot snapshot = snapshot(sector(1, 2, Ground.Water, 10));
+
+    assertThat(snapshot.changesSince(snapshot)).isEmpty();
+  }
+
+  @Test
+  void changesSinceEmptyContainsAllSectors() {
+    SectorInfo water = sector(1, 2, Ground.Water, 10);
+    SectorInfo land = sector(3, 4, Ground.Land, 0);
+
+    assertThat(snapshot(water, land).changesSince(MapSnapshot.EMPTY)).containsExactly(water, land);
+  }
+
+  @Test
+  void changesSinceContainsChangedGroundAndDepth() {
+    SectorInfo unchanged = sector(0, 0, Ground.Water, 10);
+    MapSnapshot older = snapshot(unchanged, sector(1, 1, Ground.Water, 10), sector(2, 2, Ground.Water, 10));
+    SectorInfo frozen = sector(1, 1, Ground.Ice, 10);
+    SectorInfo deeper = sector(2, 2, Ground.Water, 20);
+
+    assertThat(snapshot(unchanged, frozen, deeper).changesSince(older)).containsExactly(frozen, deeper);
+  }
+
+  @Test
+  void changesSinceSkipsSectorsThatLookTheSame() {
+    MapSnapshot older = snapshot(sector(1, 1, Ground.Water, 10));
+    // Anderes Objekt, nur das Schiff ist dazugekommen: auf der Karte nicht sichtbar.
+    SectorInfo withShip = sector(1, 1, Ground.Water, 10);
+    withShip.setShipId("Ship#1");
+
+    assertThat(snapshot(withShip).changesSince(older)).isEmpty();
+  }
+
+  @Test
+  void changesSinceIgnoresSectorsMissingInNewerSnapshot() {
+    MapSnapshot older = snapshot(sector(1, 1, Ground.Water, 10));
+
+    assertThat(MapSnapshot.EMPTY.changesSince(older)).isEmpty();
+  }
+
+  @Test
+  void anySectorIsVisiblyDifferentFromNothing() {
+    assertThat(MapSnapshot.isVisiblyDifferent(null, sector(0, 0, Ground.None, 0))).isTrue();
+  }
+
+  @Test
+  void visiblyDifferentComparesGroundAndDepthOnly() {
+    SectorInfo before = sector(5, 5, Ground.Harbour, 3);
+    SectorInfo moved = sector(6, 6, Ground.Harbour, 3);
+
+    assertThat(MapSnapshot.isVisiblyDifferent(before, moved)).isFalse();
+    assertThat(MapSnapshot.isVisiblyDifferent(before, sector(5, 5, Ground.Land, 3))).isTrue();
+    assertThat(MapSnapshot.isVisiblyDifferent(before, sector(5, 5, Ground.Harbour, 4))).isTrue();
+  }
+
+  @Test
+  void getReturnsNullOutsideTheGrid() {
+    SectorInfo corner = sector(MapSnapshot.SIZE - 1, MapSnapshot.SIZE - 1, Ground.Water, 1);
+    MapSnapshot snapshot = snapshot(corner);
+
+    assertThat(snapshot.get(MapSnapshot.SIZE - 1, MapSnapshot.SIZE - 1)).isSameAs(corner);
+    assertThat(snapshot.get(-1, 0)).isNull();
+    assertThat(snapshot.get(0, MapSnapshot.SIZE)).isNull();
+    assertThat(snapshot.get(MapSnapshot.SIZE, 0)).isNull();
+  }
+
+  @Test
+  void getSectorsSkipsEmptyCells() {
+    SectorInfo first = sector(0, 1, Ground.Water, 1);
+    SectorInfo second = sector(7, 3, Ground.Land, 0);
+
+    assertThat(snapshot(second, first).getSectors()).containsExactly(first, second);
+    assertThat(MapSnapshot.EMPTY.getSectors()).isEmpty();
+  }
+
+  private static MapSnapshot snapshot(SectorInfo... sectors) {
+    SectorInfo[] grid = new SectorInfo[MapSnapshot.SIZE * MapSnapshot.SIZE];
+    for (SectorInfo sector : sectors) {
+      grid[MapSnapshot.indexOf(sector)] = sector;
+    }
+    return new MapSnapshot(null, null, grid);
+  }
+
+  static SectorInfo sector(int x, int y, Ground ground, int depth) {
+    SectorInfo sector = new SectorInfo();
+    sector.setSectorX(x);
+    sector.setSectorY(y);
+    sector.setGround(ground);
+    sector.setDepth(depth);
+    return sector;
+  }
+}
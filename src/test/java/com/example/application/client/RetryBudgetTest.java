@@ -0,0 +1,44 @@
+package com.example.application.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+  @Test
+  void startsWithFullBudget() {
+    RetryBudget budget = new RetryBudget(0.2, 2);
+
+    assertThat(budget.tryWithdraw()).isTrue();
+    assertThat(budget.tryWithdraw()).isTrue();
+    assertThat(budget.tryWithdraw()).isFalse();
+  }
+
+  @Test
+  void depositsRatioOfATokenPerCall() {
+    RetryBudget budget = new RetryBudget(0.5, 1);
+    budget.tryWithdraw();
+
+    budget.deposit();
+    assertThat(budget.tryWithdraw()).isFalse();
+
+    budget.deposit();
+    budget.deposit();
+    assertThat(budget.tryWithdraw()).isTrue();
+    assertThat(budget.tryWithdraw()).isFalse();
+  }
+
+  @Test
+  void balanceIsCappedAtMaxTokens() {
+    RetryBudget budget = new RetryBudget(1.0, 2);
+
+    for (int i = 0; i < 10; i++) {
+      budget.deposit();
+    }
+
+    assertThat(budget.tryWithdraw()).isTrue();
+    assertThat(budget.tryWithdraw()).isTrue();
+    assertThat(budget.tryWithdraw()).isFalse();
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.application.client;
+
+import com.example.application.entity.Ground;
+import com.example.application.entity.SectorInfo;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.application.client.MapSnapshotTest.sector;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SectorGridCodecTest {
+
+  private static final int STEP = 10;
+
+  @Test
+  void roundTripsFullMap() {
+    List<SectorInfo> sectors = fullMap();
+
+    assertThat(SectorGridCodec.decode(SectorGridCodec.encode(sectors, 100, 100, STEP, false)))
+        .containsExactlyElementsOf(sectors);
+  }
+
+  @Test
+  void roundTripsDeflatedFullMap() {
+    List<SectorInfo> sectors = fullMap();
+    byte[] plain = SectorGridCodec.encode(sectors, 100, 100, STEP, false);
+    byte[] deflated = SectorGridCodec.encode(sectors, 100, 100, STEP, true);
+
+    assertThat(deflated.length).isLessThan(plain.length);
+    assertThat(SectorGridCodec.decode(deflated)).containsExactlyElementsOf(sectors);
+  }
+
+  @Test
+  void floorsDepthToStepAndClampsIt() {
+    List<SectorInfo> sectors = List.of(
+        sector(0, 0, Ground.Water, 27),
+        sector(1, 0, Ground.Water, -5),
+        sector(2, 0, Ground.Water, Integer.MAX_VALUE));
+
+    SectorInfo[] decoded = SectorGridCodec.decode(SectorGridCodec.encode(sectors, 3, 1, STEP, false));
+
+    assertThat(decoded).extracting(SectorInfo::getDepth).containsExactly(20, 0, 0x0FFF * STEP);
+  }
+
+  @Test
+  void skipsSectorsOutsideTheGridAndEmptyCells() {
+    SectorInfo inside = sector(1, 1, Ground.Land, 0);
+    List<SectorInfo> sectors = List.of(
+        inside,
+        sector(-1, 0, Ground.Water, 10),
+        sector(2, 0, Ground.Water, 10),
+        sector(0, 2, Ground.Water, 10));
+
+    assertThat(SectorGridCodec.decode(SectorGridCodec.encode(sectors, 2, 2, STEP, false))).containsExactly(inside);
+  }
+
+  @Test
+  void encodesMissingGroundAsNone() {
+    SectorInfo unknown = sector(0, 0, null, 10);
+
+    assertThat(SectorGridCodec.decode(SectorGridCodec.encode(List.of(unknown), 1, 1, STEP, false)))
+        .extracting(SectorInfo::getGround).containsExactly(Ground.None);
+  }
+
+  @Test
+  void dropsShipIds() {
+    SectorInfo withShip = sector(0, 0, Ground.Water, 10);
+    withShip.setShipId("Ship#1");
+
+    assertThat(SectorGridCodec.decode(SectorGridCodec.encode(List.of(withShip), 1, 1, STEP, false)))
+        .extracting(SectorInfo::getShipId).containsOnlyNulls();
+  }
+
+  @Test
+  void rejectsForeignBytes() {
+    assertThatThrownBy(() -> SectorGridCodec.decode("[{\"sectorX\":0}]".getBytes()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> SectorGridCodec.decode(new byte[]{'O', 'G'}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsUnknownVersion() {
+    byte[] bytes = SectorGridCodec.encode(fullMap(), 100, 100, STEP, false);
+    bytes[2] = 2;
+
+    assertThatThrownBy(() -> SectorGridCodec.decode(bytes))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("version");
+  }
+
+  @Test
+  void rejectsTruncatedCells() {
+    byte[] plain = SectorGridCodec.encode(fullMap(), 100, 100, STEP, false);
+    byte[] deflated = SectorGridCodec.encode(fullMap(), 100, 100, STEP, true);
+
+    assertThatThrownBy(() -> SectorGridCodec.decode(Arrays.copyOf(plain, plain.length - 2)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> SectorGridCodec.decode(Arrays.copyOf(deflated, deflated.length / 2)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsForgedGridSize() {
+    byte[] bytes = SectorGridCodec.encode(fullMap(), 100, 100, STEP, true);
+    ByteBuffer header = ByteBuffer.wrap(bytes);
+
+    header.putShort(4, (short) 0xFFFF).putShort(6, (short) 0xFFFF);
+    assertThatThrownBy(() -> SectorGridCodec.decode(bytes))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("size");
+
+    header.putShort(4, (short) 0).putShort(6, (short) 100);
+    assertThatThrownBy(() -> SectorGridCodec.decode(bytes))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  // In Dekodier-Reihenfolge (zeilenweise), Tiefen als Vielfaches der Schrittweite.
+  private static List<SectorInfo> fullMap() {
+    Ground[] grounds = Ground.values();
+    List<SectorInfo> sectors = new ArrayList<>(100 * 100);
+    for (int y = 0; y < 100; y++) {
+      for (int x = 0; x < 100; x++) {
+        sectors.add(sector(x, y, grounds[(x / 10 + y / 10) % grounds.length], ((x * y) % 400) * STEP));
+      }
+    }
+    return sectors;
+  }
+}
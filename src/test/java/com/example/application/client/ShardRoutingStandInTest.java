@@ -0,0 +1,185 @@
+package com.example.application.client;
+
+import com.example.application.config.ShipClientProperties;
+import com.example.application.entity.Course;
+import com.example.application.entity.Ground;
+import com.example.application.entity.Rudder;
+import com.example.application.entity.SectorInfo;
+import com.example.application.entity.ShipData;
+import com.example.application.standin.SimulatedWorld;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two stand-in servers on random ports as shards "a" and "b", driven through the real
+ * ShipClient and ShipBaseServerClient: every call for a ship must reach the world that
+ * launched it, fleet reads merge both worlds, and a reconfigured ring keeps known ships.
+ */
+class ShardRoutingStandInTest {
+
+  private static ConfigurableApplicationContext standInA;
+  private static ConfigurableApplicationContext standInB;
+  private static List<SectorInfo> water;
+
+  private ShipClientProperties properties;
+  private ShardRouter router;
+  private ShipClient shipClient;
+  private ShipBaseServerClient baseClient;
+
+  @BeforeAll
+  static void startStandIns() {
+    standInA = startStandIn("A");
+    standInB = startStandIn("B");
+    // Gleicher Seed, also gleiches Gelände in beiden Welten.
+    water = world(standInA).getSectorsSince(0).stream()
+        .filter(sector -> sector.getGround() == Ground.Water)
+        .toList();
+  }
+
+  @AfterAll
+  static void stopStandIns() {
+    if (standInA != null) {
+      standInA.close();
+    }
+    if (standInB != null) {
+      standInB.close();
+    }
+  }
+
+  @BeforeEach
+  void createClients() {
+    properties = new ShipClientProperties();
+    properties.setShards(new ArrayList<>(List.of(shard("a", standInA), shard("b", standInB))));
+    properties.getAdmission().setEnabled(false);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ShipServerMetrics metrics = new ShipServerMetrics(registry, ObservationRegistry.NOOP);
+    AdmissionController admission = new AdmissionController(properties, registry);
+    router = new ShardRouter(properties);
+    shipClient = new ShipClient(WebClient.builder(), properties, metrics, admission, router);
+    baseClient = new ShipBaseServerClient(WebClient.builder(), properties, metrics, admission, router);
+  }
+
+  @Test
+  void launchAndLaterCallsReachTheSameShard() {
+    Map<String, String> shardByShip = launch("Probe", 20);
+
+    assertThat(shardByShip.values()).contains("a", "b");
+    shardByShip.forEach((shipId, shard) -> {
+      assertThat(router.shardFor(shipId).getName()).isEqualTo(shard);
+      assertThat(shipIds(worldOf(shard))).contains(shipId);
+      assertThat(shipIds(worldOf(other(shard)))).doesNotContain(shipId);
+      // Auf dem falschen Shard wären das 404-Antworten.
+      assertThat(shipClient.radarAsync(shipId).block()).isNotNull();
+      shipClient.navigationAsync(shipId, Course.Forward, Rudder.Center).block();
+    });
+  }
+
+  @Test
+  void getAllShipDataMergesBothShards() {
+    launch("Fleet", 4);
+    List<String> expected = new ArrayList<>(shipIds(world(standInA)));
+    expected.addAll(shipIds(world(standInB)));
+
+    List<ShipData> ships = baseClient.loadShipsAsync().block();
+
+    assertThat(ships).extracting(ShipData::getShipId).containsExactlyInAnyOrderElementsOf(expected);
+    assertThat(ships).extracting(ShipData::getShipId)
+        .anyMatch(shipId -> shipId.startsWith("A"))
+        .anyMatch(shipId -> shipId.startsWith("B"));
+  }
+
+  @Test
+  void reconfiguredShardsKeepExistingShips() {
+    Map<String, String> shardByShip = launch("Keeper", 20);
+
+    // Shard c wird nie erreicht: Bekannte Schiffe dürfen nicht dorthin geroutet werden.
+    ShipClientProperties.Shard unreachable = new ShipClientProperties.Shard();
+    unreachable.setName("c");
+    unreachable.setShipServerUrl("http://localhost:1");
+    unreachable.setBaseServerUrl("http://localhost:1");
+    router.reconfigure(List.of(router.getShards().get(1), unreachable, router.getShards().get(0)));
+
+    assertThat(shardByShip.keySet())
+        .anyMatch(shipId -> !router.shardForLaunch(shipId.substring(0, shipId.lastIndexOf('#')))
+            .getName().equals(shardByShip.get(shipId)));
+    shardByShip.forEach((shipId, shard) -> {
+      assertThat(router.shardFor(shipId).getName()).isEqualTo(shard);
+      assertThat(shipClient.radarAsync(shipId).block()).isNotNull();
+    });
+  }
+
+  // Startet count Schiffe mit eigenen Namen auf Wasser; liefert Schiff -> Shard.
+  private Map<String, String> launch(String namePrefix, int count) {
+    Map<String, String> shardByShip = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      SectorInfo sector = water.get(i * 7 % water.size());
+      String name = namePrefix + i;
+      String shipId = shipClient.launchAsync(name, sector.getSectorX(), sector.getSectorY(), 1, 0).block();
+      assertThat(shipId).startsWith(name + "#");
+      shardByShip.put(shipId, router.shardFor(shipId).getName());
+    }
+    return shardByShip;
+  }
+
+  private static ConfigurableApplicationContext startStandIn(String shipNamePrefix) {
+    // Kommandozeilenargumente, damit sie application.properties überstimmen.
+    return new SpringApplicationBuilder(StandInServer.class)
+        .profiles("standin")
+        .run("--server.port=0",
+            "--ocean.standin.payload.ship-name-prefix=" + shipNamePrefix,
+            "--ocean.standin.defaults.median=1ms",
+            "--ocean.standin.defaults.p99=2ms",
+            "--vaadin.launch-browser=false");
+  }
+
+  private static ShipClientProperties.Shard shard(String name, ConfigurableApplicationContext standIn) {
+    String url = "http://localhost:" + standIn.getEnvironment().getProperty("local.server.port");
+    ShipClientProperties.Shard shard = new ShipClientProperties.Shard();
+    shard.setName(name);
+    shard.setShipServerUrl(url);
+    shard.setBaseServerUrl(url);
+    return shard;
+  }
+
+  private static SimulatedWorld world(ConfigurableApplicationContext standIn) {
+    return standIn.getBean(SimulatedWorld.class);
+  }
+
+  private static SimulatedWorld worldOf(String shard) {
+    return world(shard.equals("a") ? standInA : standInB);
+  }
+
+  private static String other(String shard) {
+    return shard.equals("a") ? "b" : "a";
+  }
+
+  private static List<String> shipIds(SimulatedWorld world) {
+    return world.getShips().stream().map(ShipData::getShipId).toList();
+  }
+
+  /** Only the stand-in servers, without the Vaadin UI and the app's own clients. */
+  @SpringBootConfiguration
+  @EnableAutoConfiguration(excludeName = {
+      "com.vaadin.flow.spring.SpringBootAutoConfiguration",
+      "com.vaadin.flow.spring.SpringSecurityAutoConfiguration"})
+  @ComponentScan(basePackageClasses = SimulatedWorld.class)
+  static class StandInServer {
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.application.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.tracing.handler.DefaultTracingObservationHandler;
+import io.micrometer.tracing.test.simple.SimpleSpan;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShipServerMetricsTest {
+
+  private final SimpleTracer tracer = new SimpleTracer();
+  private ShipServerMetrics metrics;
+
+  @BeforeEach
+  void createMetrics() {
+    ObservationRegistry observationRegistry = ObservationRegistry.create();
+    observationRegistry.observationConfig().observationHandler(new DefaultTracingObservationHandler(tracer));
+    metrics = new ShipServerMetrics(new SimpleMeterRegistry(), observationRegistry);
+  }
+
+  @Test
+  void httpCallSpanIsChildOfCommandSpan() {
+    // Der Aufruf startet auf einem anderen Thread, wie nach einem Thread-Wechsel im Client.
+    metrics.observeCommand("radar", () -> Mono.delay(Duration.ofMillis(5))
+            .then(metrics.observe("ship-server", "radar", () -> Mono.just("echo"))))
+        .block();
+
+    SimpleSpan command = span("radar");
+    SimpleSpan request = span("ship-server radar");
+    assertThat(request.getTraceId()).isEqualTo(command.getTraceId());
+    assertThat(request.getParentId()).isEqualTo(command.getSpanId());
+  }
+
+  @Test
+  void failedCallMarksItsSpan() {
+    metrics.observeCommand("navigate", () -> metrics.observe("ship-server", "navigate",
+            () -> Mono.error(new IllegalStateException("upstream down"))))
+        .onErrorResume(ex -> Mono.empty())
+        .block();
+
+    assertThat(span("ship-server navigate").getError()).hasMessage("upstream down");
+    assertThat(span("ship-server navigate").getParentId()).isEqualTo(span("navigate").getSpanId());
+  }
+
+  private SimpleSpan span(String name) {
+    return tracer.getSpans().stream()
+        .filter(span -> name.equals(span.getName()))
+        .findFirst()
+        .orElseThrow(() -> new AssertionError("No span " + name + " in " + tracer.getSpans()));
+  }
+}
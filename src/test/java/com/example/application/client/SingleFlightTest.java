@@ -0,0 +1,133 @@
+package com.example.application.client;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void concurrentCallersShareOneLoad() {
+    SingleFlight singleFlight = new SingleFlight(Duration.ZERO);
+    Sinks.One<String> upstream = Sinks.one();
+    List<String> results = new ArrayList<>();
+
+    for (int i = 0; i < 3; i++) {
+      singleFlight.execute("map", () -> {
+        loads.incrementAndGet();
+        return upstream.asMono();
+      }).subscribe(results::add);
+    }
+    upstream.tryEmitValue("sectors");
+
+    assertThat(loads).hasValue(1);
+    assertThat(results).containsExactly("sectors", "sectors", "sectors");
+  }
+
+  @Test
+  void withoutTtlLoadsAgainAfterCompletion() {
+    SingleFlight singleFlight = new SingleFlight(Duration.ZERO);
+
+    assertThat(singleFlight.execute("map", this::load).block()).isEqualTo("load 1");
+    assertThat(singleFlight.execute("map", this::load).block()).isEqualTo("load 2");
+  }
+
+  @Test
+  void errorIsNotKept() {
+    SingleFlight singleFlight = new SingleFlight(Duration.ofMinutes(1));
+
+    assertThatThrownBy(() -> singleFlight.execute("map", () -> {
+      loads.incrementAndGet();
+      return Mono.<String>error(new IllegalStateException("upstream down"));
+    }).block()).hasMessage("upstream down");
+    assertThat(singleFlight.execute("map", this::load).block()).isEqualTo("load 2");
+  }
+
+  @Test
+  void ttlServesResultUntilItExpires() throws InterruptedException {
+    SingleFlight singleFlight = new SingleFlight(Duration.ofMillis(100));
+
+    assertThat(singleFlight.execute("map", this::load).block()).isEqualTo("load 1");
+    assertThat(singleFlight.execute("map", this::load).block()).isEqualTo("load 1");
+    Thread.sleep(500);
+    assertThat(singleFlight.execute("map", this::load).block()).isEqualTo("load 2");
+  }
+
+  @Test
+  void differentKeysDoNotShare() {
+    SingleFlight singleFlight = new SingleFlight(Duration.ofMinutes(1));
+
+    assertThat(singleFlight.execute("map", this::load).block()).isEqualTo("load 1");
+    assertThat(singleFlight.execute("ships", this::load).block()).isEqualTo("load 2");
+  }
+
+  @Test
+  void sharedLoadRunsWithoutCallerContextAtTheHighestWaitingPriority() {
+    SingleFlight singleFlight = new SingleFlight(Duration.ZERO);
+    Sinks.One<String> upstream = Sinks.one();
+    AtomicReference<ContextView> loadContext = new AtomicReference<>();
+    List<RequestPriority> upgrades = new ArrayList<>();
+    Supplier<Mono<String>> loader = () -> Mono.deferContextual(context -> {
+      loads.incrementAndGet();
+      loadContext.set(context);
+      context.<Flux<RequestPriority>>get(AdmissionController.PRIORITY_UPGRADES_KEY).subscribe(upgrades::add);
+      return upstream.asMono();
+    });
+    List<String> results = new ArrayList<>();
+
+    singleFlight.execute("radar:Ship#1", loader)
+        .contextWrite(AdmissionController.withSession("poller")
+            .put(AdmissionController.PRIORITY_KEY, RequestPriority.BACKGROUND)
+            .put(ObservationThreadLocalAccessor.KEY, Observation.NOOP))
+        .subscribe(results::add);
+    // Ein Klick tritt dem Abruf des Pollers bei.
+    singleFlight.execute("radar:Ship#1", loader)
+        .contextWrite(AdmissionController.withSession("clicker")
+            .put(AdmissionController.PRIORITY_KEY, RequestPriority.INTERACTIVE))
+        .subscribe(results::add);
+    upstream.tryEmitValue("echo");
+
+    assertThat(loads).hasValue(1);
+    assertThat(results).containsExactly("echo", "echo");
+    assertThat(loadContext.get().hasKey(AdmissionController.SESSION_KEY)).isFalse();
+    assertThat(loadContext.get().hasKey(ObservationThreadLocalAccessor.KEY)).isFalse();
+    assertThat(loadContext.get().<RequestPriority>get(AdmissionController.PRIORITY_KEY))
+        .isEqualTo(RequestPriority.BACKGROUND);
+    assertThat(upgrades).containsExactly(RequestPriority.INTERACTIVE);
+  }
+
+  @Test
+  void firstCallerPriorityIsUsedFromTheStart() {
+    SingleFlight singleFlight = new SingleFlight(Duration.ZERO);
+    AtomicReference<RequestPriority> priority = new AtomicReference<>();
+
+    singleFlight.execute("radar:Ship#1", () -> Mono.deferContextual(context -> {
+          priority.set(context.get(AdmissionController.PRIORITY_KEY));
+          return Mono.just("echo");
+        }))
+        .contextWrite(AdmissionController.withPriority(RequestPriority.INTERACTIVE))
+        .block();
+
+    assertThat(priority).hasValue(RequestPriority.INTERACTIVE);
+  }
+
+  private Mono<String> load() {
+    return Mono.fromSupplier(() -> "load " + loads.incrementAndGet());
+  }
+}